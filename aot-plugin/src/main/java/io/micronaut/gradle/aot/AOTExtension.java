@@ -17,8 +17,10 @@ package io.micronaut.gradle.aot;
 
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 
 /**
@@ -45,4 +47,14 @@ public interface AOTExtension extends AOTOptimizations {
     @InputFile
     RegularFileProperty getConfigFile();
 
+    /**
+     * Patterns of the files to exclude from both the shadow jar
+     * and the optimized shadow jar, when the Shadow plugin is
+     * applied. These excludes are shared by both tasks, so building
+     * the optimized jar doesn't require configuring the shadow jar.
+     * @return the exclude patterns
+     */
+    @Internal
+    SetProperty<String> getFatJarExcludes();
+
 }
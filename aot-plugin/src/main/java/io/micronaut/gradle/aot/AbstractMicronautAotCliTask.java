@@ -25,6 +25,7 @@ import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.jvm.toolchain.JavaLauncher;
@@ -43,7 +44,7 @@ import java.util.List;
 
 abstract class AbstractMicronautAotCliTask extends DefaultTask implements OptimizerIO {
 
-    @Input
+    @Nested
     @Optional
     public abstract Property<JavaLauncher> getJavaLauncher();
     @Classpath
@@ -15,22 +15,25 @@
  */
 package io.micronaut.gradle.aot;
 
-import com.github.jengelman.gradle.plugins.shadow.ShadowJavaPlugin;
-import com.github.jengelman.gradle.plugins.shadow.tasks.InheritManifest;
 import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import io.micronaut.gradle.internal.ShadowCompat;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.Task;
 import org.gradle.api.file.ArchiveOperations;
-import org.gradle.api.java.archives.Manifest;
+import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.plugins.JavaApplication;
+import org.gradle.api.provider.Provider;
 import org.gradle.api.provider.SetProperty;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.specs.Specs;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
 import org.gradle.api.tasks.bundling.Jar;
+import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.language.base.plugins.LifecycleBasePlugin;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
 
 /**
  * A support class which is separate from the main code just to avoid eagerly
@@ -39,69 +42,63 @@ import java.lang.reflect.InvocationTargetException;
  */
 class AotShadowSupport {
 
-    private static final Action<Object> NO_ACTION = unused -> { };
-
     private AotShadowSupport() {
     }
 
     static void registerShadowJar(Project project,
                                   ArchiveOperations archiveOperations,
                                   TaskContainer tasks,
-                                  TaskProvider<Jar> optimizedJar) {
-        project.afterEvaluate(unused -> {
+                                  TaskProvider<Jar> optimizedJar,
+                                  SetProperty<String> fatJarExcludes) {
+        // Both fat jars share the same excludes, so that the main shadow jar
+        // doesn't have to be configured when only the optimized one is built
+        SharedExcludes excludes = new SharedExcludes(fatJarExcludes);
+        tasks.named(ShadowJar.SHADOW_JAR_TASK_NAME, ShadowJar.class).configure(main -> main.exclude(excludes));
+        var taskName = optimizedJar.getName() + "All";
+        TaskProvider<ShadowJar> shadowProvider = tasks.register(taskName, ShadowJar.class, shadow -> {
+            ShadowCompat shadowCompat = ShadowCompat.get();
+            shadow.setGroup(LifecycleBasePlugin.BUILD_GROUP);
+            shadow.setDescription("Creates a fat jar including the Micronaut AOT optimizations");
+            shadow.getArchiveClassifier().convention("all-optimized");
+            // The main jar is an input of the optimized jar, so it is always configured when this task is scheduled
+            tasks.named("jar", Jar.class).configure(jar -> shadowCompat.inheritManifestFrom(shadow, jar.getManifest()));
             JavaApplication javaApplication = project.getExtensions().findByType(JavaApplication.class);
-            var taskName = optimizedJar.getName() + "All";
-            TaskProvider<ShadowJar> shadowProvider = tasks.register(taskName, ShadowJar.class, shadow -> {
-                shadow.setGroup(LifecycleBasePlugin.BUILD_GROUP);
-                shadow.setDescription("Creates a fat jar including the Micronaut AOT optimizations");
-                shadow.getArchiveClassifier().convention("all-optimized");
-                Jar mainJar = tasks.named("jar", Jar.class).get();
-                var shadowManifest = shadow.getManifest();
-                var mainManifest = mainJar.getManifest();
-                compatInheritFrom(shadowManifest, mainManifest);
-                if (javaApplication != null) {
-                    // This is the reason why we use an afterEvaluate:
-                    // The shadow plugin apparently does something with attributes,
-                    // breaking support for providers
-                    shadowManifest.getAttributes().put("Main-Class", javaApplication.getMainClass().get());
-                }
-                shadow.from(optimizedJar.map(jar -> archiveOperations.zipTree(jar.getArchiveFile().get())));
-                compatAddConfiguration(shadow, project.getConfigurations().findByName("runtimeClasspath"));
-                shadow.getExcludes().addAll(tasks.named(ShadowJar.SHADOW_JAR_TASK_NAME, ShadowJar.class).get().getExcludes());
-            });
-            tasks.named("assemble").configure(assemble -> assemble.dependsOn(shadowProvider));
+            if (javaApplication != null) {
+                // The shadow plugin doesn't support providers as manifest attributes,
+                // so the main class is only resolved when the task executes
+                Provider<String> mainClass = javaApplication.getMainClass();
+                shadow.getInputs().property("mainClass", mainClass).optional(true);
+                shadow.doFirst(new Action<>() {
+                    @Override
+                    public void execute(Task task) {
+                        if (mainClass.isPresent()) {
+                            ((ShadowJar) task).getManifest().getAttributes().put("Main-Class", mainClass.get());
+                        }
+                    }
+                });
+            }
+            shadow.from(optimizedJar.map(jar -> archiveOperations.zipTree(jar.getArchiveFile().get())));
+            shadowCompat.addConfiguration(shadow, project.getConfigurations().findByName("runtimeClasspath"));
+            shadow.exclude(excludes);
         });
+        tasks.named("assemble").configure(assemble -> assemble.dependsOn(shadowProvider));
     }
 
-    private static void compatAddConfiguration(ShadowJar shadowJar, Configuration configuration) {
-        try {
-            shadowJar.getConfigurations().add(configuration);
-        } catch (Throwable ex) {
-            try {
-                var getConfigurationsMethod = shadowJar.getClass().getDeclaredMethod("getConfigurations");
-                var result = getConfigurationsMethod.invoke(shadowJar);
-                if (result instanceof SetProperty setProperty) {
-                    setProperty.add(configuration);
-                } else {
-                    throw new RuntimeException("Unexpected return type for getConfigurations():" + result.getClass());
-                }
-            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException(e);
-            }
+    private static final class SharedExcludes implements Spec<FileTreeElement> {
+        private final SetProperty<String> patterns;
+        private transient Spec<FileTreeElement> spec;
+
+        private SharedExcludes(SetProperty<String> patterns) {
+            this.patterns = patterns;
         }
-    }
 
-    private static void compatInheritFrom(InheritManifest shadowManifest, Manifest mainManifest) {
-        try {
-            shadowManifest.inheritFrom(mainManifest);
-        } catch (Throwable ex) {
-            // Workaround from compatibility with Shadow Plugin rewritten in Kotlin
-            try {
-                var inheritFromMethod = shadowManifest.getClass().getDeclaredMethod("inheritFrom", Object[].class, Action.class);
-                inheritFromMethod.invoke(shadowManifest, new Object[] { mainManifest }, NO_ACTION);
-            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException(e);
+        @Override
+        public boolean isSatisfiedBy(FileTreeElement element) {
+            if (spec == null) {
+                Set<String> excludes = patterns.getOrElse(Set.of());
+                spec = excludes.isEmpty() ? Specs.satisfyNone() : new PatternSet().include(excludes).getAsSpec();
             }
+            return spec.isSatisfiedBy(element);
         }
     }
 
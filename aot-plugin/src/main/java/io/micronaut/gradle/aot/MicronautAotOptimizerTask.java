@@ -16,6 +16,7 @@
 package io.micronaut.gradle.aot;
 
 import org.gradle.api.file.Directory;
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFile;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Provider;
@@ -26,12 +27,18 @@ import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Stream;
 
 @CacheableTask
 public abstract class MicronautAotOptimizerTask extends AbstractMicronautAotCliTask {
 
     public static final String RESOURCE_FILTER_PATH = "logs/resource-filter.txt";
+    public static final String RESOURCE_FILTER_INDEX_PATH = "logs/resource-filter.idx";
 
     @Internal
     public Provider<Directory> getGeneratedSourcesDirectory() {
@@ -48,11 +55,30 @@ public abstract class MicronautAotOptimizerTask extends AbstractMicronautAotCliT
         return getOutputDirectory().map(d -> d.file(RESOURCE_FILTER_PATH));
     }
 
+    /**
+     * The sorted index of resources to exclude from the optimized jars,
+     * derived from the {@link #getGeneratedOutputResourceFilter() resource filter}.
+     * @return the index file
+     */
+    @Internal
+    public Provider<RegularFile> getGeneratedOutputResourceFilterIndex() {
+        return getOutputDirectory().map(d -> d.file(RESOURCE_FILTER_INDEX_PATH));
+    }
+
     @InputFile
     @PathSensitive(PathSensitivity.NONE)
     @Optional
     public abstract RegularFileProperty getConfigurationFile();
 
+    /**
+     * The project directory. It is not an input of this task: it is only
+     * used to verify that the generated sources do not embed absolute paths,
+     * which would make the outputs of this task non relocatable.
+     * @return the project directory
+     */
+    @Internal
+    public abstract DirectoryProperty getProjectDirectory();
+
     @Override
     protected void configureExtraArguments(List<String> args) {
         args.add("--output");
@@ -63,4 +89,47 @@ public abstract class MicronautAotOptimizerTask extends AbstractMicronautAotCliT
         }
     }
 
+    @Override
+    protected void onSuccess(File outputDir) {
+        File resourceFilter = new File(outputDir, RESOURCE_FILTER_PATH);
+        if (resourceFilter.exists()) {
+            try {
+                ResourceFilterIndex.write(resourceFilter.toPath(), new File(outputDir, RESOURCE_FILTER_INDEX_PATH).toPath());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        verifyRelocatable(new File(outputDir, "sources"));
+    }
+
+    private void verifyRelocatable(File sourcesDir) {
+        if (!getProjectDirectory().isPresent() || !sourcesDir.isDirectory()) {
+            return;
+        }
+        String projectPath = getProjectDirectory().get().getAsFile().getAbsolutePath();
+        String escapedProjectPath = projectPath.replace("\\", "\\\\");
+        List<String> offending;
+        try (Stream<Path> files = Files.walk(sourcesDir.toPath())) {
+            offending = files.filter(Files::isRegularFile)
+                    .filter(file -> {
+                        try {
+                            String content = Files.readString(file);
+                            return content.contains(projectPath) || content.contains(escapedProjectPath);
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .map(file -> sourcesDir.toPath().relativize(file).toString())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (!offending.isEmpty()) {
+            getLogger().warn("Micronaut AOT generated sources which contain the absolute path of the project directory: {}. " +
+                    "The outputs of task {} are not relocatable and cannot be reused from the build cache by builds located in a different directory.",
+                    offending, getPath());
+        }
+    }
+
 }
@@ -43,7 +43,6 @@ import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.FileCopyDetails;
 import org.gradle.api.file.RegularFile;
-import org.gradle.api.file.RelativePath;
 import org.gradle.api.java.archives.Attributes;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.plugins.ApplicationPlugin;
@@ -61,10 +60,10 @@ import org.gradle.api.tasks.bundling.Jar;
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -151,15 +150,33 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
         Configuration optimizerRuntimeClasspath = configurations.aotOptimizerRuntimeClasspath;
         Configuration applicationClasspath = configurations.aotApplicationClasspath;
         TaskContainer tasks = project.getTasks();
-        TaskProvider<MicronautAotOptimizerTask> prepareJit = registerPrepareOptimizationTask(project, optimizerRuntimeClasspath, applicationClasspath, tasks, aotExtension, OptimizerIO.TargetRuntime.JIT);
-        registerJavaExecOptimizedRun(project, tasks, prepareJit);
-        TaskProvider<MicronautAotOptimizerTask> prepareNative = registerPrepareOptimizationTask(project, optimizerRuntimeClasspath, applicationClasspath, tasks, aotExtension, OptimizerIO.TargetRuntime.NATIVE);
-        var optimizedNativeJarProvider = registerOptimizedJar(project, tasks, prepareNative, OptimizerIO.TargetRuntime.NATIVE);
-        project.getPlugins().withType(NativeImagePlugin.class, p -> registerOptimizedBinary(project, optimizedNativeJarProvider));
+        var variants = new EnumMap<OptimizerIO.TargetRuntime, OptimizedVariant>(OptimizerIO.TargetRuntime.class);
+        for (OptimizerIO.TargetRuntime runtime : OptimizerIO.TargetRuntime.values()) {
+            TaskProvider<MicronautAotOptimizerTask> prepareTask = registerPrepareOptimizationTask(project, optimizerRuntimeClasspath, applicationClasspath, tasks, aotExtension, runtime);
+            TaskProvider<Jar> optimizedJar = registerOptimizedJar(project, tasks, prepareTask, runtime);
+            registerReportTask(project, tasks, prepareTask, runtime);
+            variants.put(runtime, new OptimizedVariant(runtime, prepareTask, optimizedJar));
+        }
+        registerJavaExecOptimizedRun(project, tasks, variants.get(OptimizerIO.TargetRuntime.JIT).optimizedJar(), aotExtension);
+        project.getPlugins().withType(NativeImagePlugin.class, p -> registerOptimizedBinary(project, variants.get(OptimizerIO.TargetRuntime.NATIVE).optimizedJar()));
+        project.getPlugins().withType(MicronautDockerPlugin.class, p -> registerDockerImage(project, variants.values()));
 
         registerCreateSamplesTasks(project, optimizerRuntimeClasspath, applicationClasspath, tasks, aotExtension);
     }
 
+    private void registerReportTask(Project project,
+                                    TaskContainer tasks,
+                                    TaskProvider<MicronautAotOptimizerTask> prepareTask,
+                                    OptimizerIO.TargetRuntime runtime) {
+        TaskProvider<MicronautAotReportTask> report = tasks.register("aot" + runtime.getCapitalizedName() + "Report", MicronautAotReportTask.class, task -> {
+            task.setDescription("Generates a report of the " + runtime.getCapitalizedName() + " AOT optimizations");
+            task.getOptimizerOutputDirectory().convention(prepareTask.flatMap(MicronautAotOptimizerTask::getOutputDirectory));
+            task.getTargetRuntime().value(runtime).finalizeValue();
+            task.getReportDirectory().convention(project.getLayout().getBuildDirectory().dir("reports/aot/" + runtime.getSimpleName()));
+        });
+        prepareTask.configure(task -> task.finalizedBy(report));
+    }
+
     private void registerCreateSamplesTasks(Project project, Configuration optimizerRuntimeClasspath, Configuration applicationClasspath, TaskContainer tasks, AOTExtension aotExtension) {
         TaskProvider<Task> createAotSampleConfigurationFiles = tasks.register("createAotSampleConfigurationFiles", task ->
             task.setDescription("Generates Micronaut AOT sample configuration files")
@@ -203,13 +220,32 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
     }
 
     @SuppressWarnings("unchecked")
-    private void registerDockerImage(Project project, TaskProvider<Jar> optimizedJar, OptimizerIO.TargetRuntime runtime) {
+    private void registerDockerImage(Project project, Collection<OptimizedVariant> variants) {
         MicronautExtension micronautExtension = project.getExtensions().getByType(MicronautExtension.class);
         NamedDomainObjectContainer<MicronautDockerImage> dockerImages = (NamedDomainObjectContainer<MicronautDockerImage>) micronautExtension.getExtensions().getByName("dockerImages");
-        TaskContainer tasks = project.getTasks();
-        TaskProvider<Jar> optimizedRunnerJar = tasks.register("optimizedRunner" + runtime.getCapitalizedName() + "Jar", Jar.class, jar -> {
+        var runnerJars = new EnumMap<OptimizerIO.TargetRuntime, TaskProvider<Jar>>(OptimizerIO.TargetRuntime.class);
+        for (OptimizedVariant variant : variants) {
+            runnerJars.put(variant.runtime(), registerOptimizedRunnerJar(project, variant));
+        }
+        // A single image declares one application layer per target runtime,
+        // so that the JIT and native docker builds never share a runner jar
+        dockerImages.create(OPTIMIZED_DIST_NAME, image -> {
+            MicronautDockerPlugin.createDependencyLayers(image, project.getConfigurations().getByName(RUNTIME_CLASSPATH_CONFIGURATION_NAME));
+            runnerJars.forEach((runtime, runnerJar) -> image.addLayer(layer -> {
+                layer.getLayerKind().set(LayerKind.APP);
+                layer.getRuntimeKind().set(runtime == OptimizerIO.TargetRuntime.JIT ? RuntimeKind.JIT : RuntimeKind.NATIVE);
+                layer.getFiles().from(runnerJar);
+            }));
+        });
+    }
+
+    private TaskProvider<Jar> registerOptimizedRunnerJar(Project project, OptimizedVariant variant) {
+        OptimizerIO.TargetRuntime runtime = variant.runtime();
+        TaskProvider<Jar> optimizedJar = variant.optimizedJar();
+        return project.getTasks().register("optimizedRunner" + runtime.getCapitalizedName() + "Jar", Jar.class, jar -> {
             jar.from(getArchiveOperations().zipTree(optimizedJar.map(Jar::getArchiveFile)));
-            jar.getArchiveClassifier().set("optimized-runner");
+            // each variant must have its own archive, otherwise the runner jars would overlap
+            jar.getArchiveClassifier().set(runtime == OptimizerIO.TargetRuntime.JIT ? "optimized-runner" : "optimized-" + runtime.getSimpleName() + "-runner");
             jar.manifest(manifest -> {
                 JavaApplication javaApplication = project.getExtensions().getByType(JavaApplication.class);
                 Attributes attrs = manifest.getAttributes();
@@ -229,24 +265,6 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
                 manifest.attributes(attrs);
             });
         });
-        MicronautDockerImage optimized = dockerImages.findByName("optimized");
-        if (optimized != null) {
-            // only consider the main app
-            optimized.addLayer(layer -> {
-                layer.getLayerKind().set(LayerKind.APP);
-                layer.getRuntimeKind().set(runtime == OptimizerIO.TargetRuntime.JIT ? RuntimeKind.JIT : RuntimeKind.NATIVE);
-                layer.getFiles().from(optimizedRunnerJar);
-            });
-        } else {
-            dockerImages.create("optimized", image -> {
-                MicronautDockerPlugin.createDependencyLayers(image, project.getConfigurations().getByName(RUNTIME_CLASSPATH_CONFIGURATION_NAME));
-                image.addLayer(layer -> {
-                    layer.getLayerKind().set(LayerKind.APP);
-                    layer.getRuntimeKind().set(runtime == OptimizerIO.TargetRuntime.JIT ? RuntimeKind.JIT : RuntimeKind.NATIVE);
-                    layer.getFiles().from(optimizedRunnerJar);
-                });
-            });
-        }
     }
 
     private void registerOptimizedBinary(Project project, TaskProvider<Jar> optimizedJar) {
@@ -293,7 +311,7 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
             jar.getArchiveClassifier().convention(runtime.getSimpleName());
             jar.from(mainJar.get().getSource(), spec -> spec.eachFile(
                     new JarExclusionSpec(
-                            prepareTask.flatMap(MicronautAotOptimizerTask::getGeneratedOutputResourceFilter),
+                            prepareTask.flatMap(MicronautAotOptimizerTask::getGeneratedOutputResourceFilterIndex),
                             Collections.singleton("META-INF/services/"),
                             jar.getLogger()))
             );
@@ -301,15 +319,14 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
             jar.from(mergeTask);
         });
         tasks.named("assemble").configure(assemble -> assemble.dependsOn(jarTask));
-        project.getPlugins().withType(MicronautDockerPlugin.class, p -> registerDockerImage(project, jarTask, runtime));
         return jarTask;
     }
 
     private void registerJavaExecOptimizedRun(Project project,
                                               TaskContainer tasks,
-                                              TaskProvider<MicronautAotOptimizerTask> prepareJit) {
-        TaskProvider<Jar> jarTask = registerOptimizedJar(project, tasks, prepareJit, OptimizerIO.TargetRuntime.JIT);
-        ShadowPluginSupport.withShadowPlugin(project, () -> AotShadowSupport.registerShadowJar(project, getArchiveOperations(), tasks, jarTask));
+                                              TaskProvider<Jar> jarTask,
+                                              AOTExtension aotExtension) {
+        ShadowPluginSupport.withShadowPlugin(project, () -> AotShadowSupport.registerShadowJar(project, getArchiveOperations(), tasks, jarTask, aotExtension.getFatJarExcludes()));
         project.getPlugins().withType(DistributionPlugin.class, p -> registerOptimizedDistribution(project, jarTask));
         project.getPlugins().withType(ApplicationPlugin.class, p -> {
             ConfigurationContainer configurations = project.getConfigurations();
@@ -373,6 +390,7 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
             task.getClasspath().from(applicationClasspath);
             task.getAotVersion().convention(aotExtension.getVersion());
             task.getEnvironmentVariables().convention(aotExtension.getEnvironmentVariables());
+            task.getProjectDirectory().convention(project.getLayout().getProjectDirectory());
         });
     }
 
@@ -419,43 +437,45 @@ public abstract class MicronautAotPlugin implements Plugin<Project> {
     }
 
     private static class JarExclusionSpec implements Action<FileCopyDetails> {
-        private final Provider<RegularFile> filterFile;
+        private final Provider<RegularFile> indexFile;
         private final Set<String> prefixes;
         private final Logger logger;
-        private Set<String> excludes;
+        private ResourceFilterIndex index;
 
-        private JarExclusionSpec(Provider<RegularFile> filterFile,
+        private JarExclusionSpec(Provider<RegularFile> indexFile,
                                  Set<String> prefixes,
                                  Logger logger) {
-            this.filterFile = filterFile;
+            this.indexFile = indexFile;
             this.prefixes = prefixes;
             this.logger = logger;
         }
 
         @Override
         public void execute(FileCopyDetails details) {
-            if (excludes == null) {
-                File resourceFilter = filterFile.get().getAsFile();
+            if (index == null) {
+                File resourceFilterIndex = indexFile.get().getAsFile();
                 try {
-                    excludes = new HashSet<>();
-                    Files.readAllLines(resourceFilter.toPath())
-                            .stream()
-                            .map(JarExclusionSpec::normalizePath)
-                            .forEach(excludes::add);
+                    index = ResourceFilterIndex.read(resourceFilterIndex.toPath(), prefixes);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
-                logger.debug("Excluded resources: {} ", excludes);
+                logger.debug("Excluded resources: {} ", index.excludedPaths());
             }
-            RelativePath relativePath = details.getRelativePath();
-            if (excludes.contains(normalizePath(relativePath.getPathString())) || prefixes.stream().anyMatch(p -> normalizePath(relativePath.getPathString()).startsWith(p))) {
+            if (index.isExcluded(details.getRelativePath().getPathString())) {
                 details.exclude();
             }
         }
+    }
 
-        private static String normalizePath(String path) {
-            return path.replace('\\', '/');
-        }
+    /**
+     * The tasks producing the optimized application for a single target runtime.
+     * Variants don't share any task or output, so they can be built independently.
+     */
+    private record OptimizedVariant(
+        OptimizerIO.TargetRuntime runtime,
+        TaskProvider<MicronautAotOptimizerTask> prepareTask,
+        TaskProvider<Jar> optimizedJar
+    ) {
     }
 
     private record Configurations(
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.aot;
+
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+import io.micronaut.gradle.Strings;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Generates a report describing what the Micronaut AOT optimizer
+ * produced: generated classes and their size, inlined configuration
+ * files, precomputed services. The report is compared with a baseline
+ * report if one is configured, or with the report of the previous
+ * execution otherwise, so that regressions are easy to spot.
+ */
+@DisableCachingByDefault(because = "The report depends on the report of the previous execution")
+public abstract class MicronautAotReportTask extends DefaultTask {
+
+    public static final String REPORT_FILE = "report.json";
+    public static final String SUMMARY_FILE = "report.txt";
+
+    private static final String SOURCES_DIR = "sources";
+    private static final String CLASSES_DIR = "classes";
+    private static final String SERVICES_DIR = "META-INF/services";
+
+    /**
+     * The output directory of the AOT optimizer task.
+     * @return the optimizer output directory
+     */
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public abstract DirectoryProperty getOptimizerOutputDirectory();
+
+    @Input
+    public abstract Property<OptimizerIO.TargetRuntime> getTargetRuntime();
+
+    /**
+     * A report to compare the generated report with, for example
+     * a report committed to the repository or downloaded from a
+     * previous CI build. If not set, the generated report is compared
+     * with the report of the previous execution.
+     * @return the baseline report file
+     */
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getBaselineReport();
+
+    @OutputDirectory
+    public abstract DirectoryProperty getReportDirectory();
+
+    @TaskAction
+    public void generateReport() throws IOException {
+        Path optimizerOutput = getOptimizerOutputDirectory().get().getAsFile().toPath();
+        File reportDir = getReportDirectory().get().getAsFile();
+        File reportFile = new File(reportDir, REPORT_FILE);
+        File baselineFile = getBaselineReport().isPresent() ? getBaselineReport().get().getAsFile() : reportFile;
+        Map<String, Object> previous = readReport(baselineFile);
+        Map<String, Object> report = createReport(optimizerOutput);
+        report.put("runtime", getTargetRuntime().get().getSimpleName());
+        if (previous != null) {
+            report.put("baseline", baselineFile == reportFile ? "previous" : baselineFile.getName());
+            report.put("diff", diff(previous, report));
+        }
+        Files.writeString(reportFile.toPath(), JsonOutput.prettyPrint(JsonOutput.toJson(report)), StandardCharsets.UTF_8);
+        File summaryFile = new File(reportDir, SUMMARY_FILE);
+        try (var writer = new PrintWriter(Files.newBufferedWriter(summaryFile.toPath(), StandardCharsets.UTF_8))) {
+            writeSummary(report, writer);
+        }
+        getLogger().info("Micronaut AOT report written to {}", Strings.clickableUrl(summaryFile));
+    }
+
+    static Map<String, Object> createReport(Path optimizerOutput) throws IOException {
+        Path sources = optimizerOutput.resolve(SOURCES_DIR);
+        Path classes = optimizerOutput.resolve(CLASSES_DIR);
+        // Each AOT source generator emits its own top-level class, so we
+        // group generated files by top level class name
+        Map<String, Map<String, Object>> generators = new TreeMap<>();
+        for (Path source : listFiles(sources, ".java")) {
+            String className = toClassName(sources.relativize(source));
+            Map<String, Object> entry = generatorEntry(generators, className);
+            entry.put("sourceBytes", Files.size(source));
+        }
+        for (Path classFile : listFiles(classes, ".class")) {
+            String className = toClassName(classes.relativize(classFile));
+            int inner = className.indexOf('$');
+            Map<String, Object> entry = generatorEntry(generators, inner > 0 ? className.substring(0, inner) : className);
+            entry.put("classCount", (Integer) entry.get("classCount") + 1);
+            entry.put("classBytes", (Long) entry.get("classBytes") + Files.size(classFile));
+        }
+        Map<String, Object> services = new TreeMap<>();
+        int serviceEntries = 0;
+        for (Path serviceFile : listFiles(classes.resolve(SERVICES_DIR), "")) {
+            long count = Files.readAllLines(serviceFile, StandardCharsets.UTF_8)
+                    .stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .count();
+            services.put(serviceFile.getFileName().toString(), count);
+            serviceEntries += (int) count;
+        }
+        List<String> excludedResources = new ArrayList<>();
+        Path resourceFilter = optimizerOutput.resolve(MicronautAotOptimizerTask.RESOURCE_FILTER_PATH);
+        if (Files.exists(resourceFilter)) {
+            Files.readAllLines(resourceFilter, StandardCharsets.UTF_8)
+                    .stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .sorted()
+                    .forEach(excludedResources::add);
+        }
+        List<String> inlinedYaml = excludedResources.stream()
+                .filter(r -> r.endsWith(".yml") || r.endsWith(".yaml"))
+                .toList();
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("generators", generators.size());
+        totals.put("classCount", generators.values().stream().mapToInt(e -> (Integer) e.get("classCount")).sum());
+        totals.put("classBytes", generators.values().stream().mapToLong(e -> (Long) e.get("classBytes")).sum());
+        totals.put("sourceBytes", generators.values().stream().mapToLong(e -> (Long) e.get("sourceBytes")).sum());
+        totals.put("excludedResources", excludedResources.size());
+        totals.put("inlinedYamlFiles", inlinedYaml.size());
+        totals.put("precomputedServiceTypes", services.size());
+        // Every statically registered service implementation is one class
+        // which doesn't have to be discovered by scanning at runtime
+        totals.put("estimatedClassesRemovedFromScanning", serviceEntries);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totals", totals);
+        report.put("generators", generators);
+        report.put("services", services);
+        report.put("inlinedYamlFiles", inlinedYaml);
+        report.put("excludedResources", excludedResources);
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> diff = new LinkedHashMap<>();
+        Map<String, Object> previousTotals = (Map<String, Object>) previous.getOrDefault("totals", Map.of());
+        Map<String, Object> currentTotals = (Map<String, Object>) current.get("totals");
+        Map<String, Object> totals = new LinkedHashMap<>();
+        currentTotals.forEach((key, value) -> {
+            long delta = ((Number) value).longValue() - asLong(previousTotals.get(key));
+            if (delta != 0) {
+                totals.put(key, delta);
+            }
+        });
+        diff.put("totals", totals);
+        Map<String, Object> previousGenerators = (Map<String, Object>) previous.getOrDefault("generators", Map.of());
+        Map<String, Object> currentGenerators = (Map<String, Object>) current.get("generators");
+        diff.put("added", currentGenerators.keySet().stream().filter(k -> !previousGenerators.containsKey(k)).sorted().toList());
+        diff.put("removed", previousGenerators.keySet().stream().filter(k -> !currentGenerators.containsKey(k)).sorted().toList());
+        Map<String, Object> changed = new TreeMap<>();
+        currentGenerators.forEach((name, value) -> {
+            Object before = previousGenerators.get(name);
+            if (before != null) {
+                long delta = asLong(((Map<String, Object>) value).get("classBytes")) - asLong(((Map<String, Object>) before).get("classBytes"));
+                if (delta != 0) {
+                    changed.put(name, delta);
+                }
+            }
+        });
+        diff.put("classBytesChanged", changed);
+        return diff;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeSummary(Map<String, Object> report, PrintWriter writer) {
+        writer.println("Micronaut AOT report (" + report.get("runtime") + ")");
+        Map<String, Object> totals = (Map<String, Object>) report.get("totals");
+        Map<String, Object> diff = (Map<String, Object>) report.get("diff");
+        Map<String, Object> deltas = diff == null ? Map.of() : (Map<String, Object>) diff.get("totals");
+        totals.forEach((key, value) -> {
+            Object delta = deltas.get(key);
+            writer.println("  " + key + ": " + value + (delta == null ? "" : String.format(Locale.US, " (%+d)", asLong(delta))));
+        });
+        writer.println();
+        writer.println("Generated classes:");
+        Map<String, Map<String, Object>> generators = (Map<String, Map<String, Object>>) report.get("generators");
+        generators.forEach((name, entry) -> writer.println("  " + name + ": " + entry.get("classCount") + " classes, " + entry.get("classBytes") + " bytes"));
+        if (diff != null) {
+            writer.println();
+            Object baseline = report.get("baseline");
+            writer.println("previous".equals(baseline) ? "Changes since previous build:" : "Changes since " + baseline + ":");
+            writer.println("  added: " + diff.get("added"));
+            writer.println("  removed: " + diff.get("removed"));
+            writer.println("  class bytes changed: " + diff.get("classBytesChanged"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readReport(File reportFile) {
+        if (!reportFile.exists()) {
+            return null;
+        }
+        try {
+            return (Map<String, Object>) new JsonSlurper().parse(reportFile, StandardCharsets.UTF_8.name());
+        } catch (RuntimeException e) {
+            getLogger().info("Ignoring unreadable AOT report {}", reportFile, e);
+            return null;
+        }
+    }
+
+    private static Map<String, Object> generatorEntry(Map<String, Map<String, Object>> generators, String className) {
+        return generators.computeIfAbsent(className, unused -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("classCount", 0);
+            entry.put("classBytes", 0L);
+            entry.put("sourceBytes", 0L);
+            return entry;
+        });
+    }
+
+    private static List<Path> listFiles(Path dir, String extension) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(extension))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String toClassName(Path relativePath) {
+        String path = relativePath.toString().replace(File.separatorChar, '/');
+        int dot = path.lastIndexOf('.');
+        return (dot > 0 ? path.substring(0, dot) : path).replace('/', '.');
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.aot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The index of the resources which must be excluded from the
+ * optimized jars. The index file is computed once, when the AOT
+ * optimizer runs, from the resource filter file it produces, so
+ * that the jar tasks only have to load normalized entries.
+ */
+final class ResourceFilterIndex {
+
+    private final Set<String> excludes;
+    private final String[] prefixes;
+
+    private ResourceFilterIndex(Set<String> excludes, String[] prefixes) {
+        this.excludes = excludes;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * Writes the index file corresponding to the resource filter file.
+     * Entries are normalized, deduplicated and sorted.
+     * @param resourceFilter the resource filter file generated by the optimizer
+     * @param index the index file to write
+     * @throws IOException if an error occurs
+     */
+    static void write(Path resourceFilter, Path index) throws IOException {
+        String[] entries = sortedEntries(Files.readAllLines(resourceFilter, StandardCharsets.UTF_8));
+        Files.createDirectories(index.getParent());
+        Files.write(index, Arrays.asList(entries), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an index file. The file is expected to be normalized, as
+     * written by {@link #write(Path, Path)}.
+     * @param index the index file
+     * @param prefixes the path prefixes which are always excluded
+     * @return the index
+     * @throws IOException if an error occurs
+     */
+    static ResourceFilterIndex read(Path index, Collection<String> prefixes) throws IOException {
+        return new ResourceFilterIndex(
+                new HashSet<>(Files.readAllLines(index, StandardCharsets.UTF_8)),
+                sortedEntries(prefixes)
+        );
+    }
+
+    static ResourceFilterIndex of(Collection<String> excludes, Collection<String> prefixes) {
+        return new ResourceFilterIndex(new HashSet<>(Arrays.asList(sortedEntries(excludes))), sortedEntries(prefixes));
+    }
+
+    int size() {
+        return excludes.size();
+    }
+
+    boolean isExcluded(String path) {
+        String normalized = normalizePath(path);
+        if (excludes.contains(normalized)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (normalized.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Set<String> excludedPaths() {
+        return Collections.unmodifiableSet(excludes);
+    }
+
+    private static String[] sortedEntries(Collection<String> entries) {
+        return entries.stream()
+                .map(ResourceFilterIndex::normalizePath)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    private static String normalizePath(String path) {
+        // String#replace returns the same instance when there's nothing to replace
+        return path.replace('\\', '/');
+    }
+}
@@ -0,0 +1,69 @@
+package io.micronaut.gradle.aot
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class MicronautAotReportSpec extends Specification {
+    @TempDir
+    Path optimizerOutput
+
+    def "reports generated classes, services and inlined resources"() {
+        file("sources/demo/AOTApplicationContextConfigurer.java") << "class AOTApplicationContextConfigurer {}"
+        file("classes/demo/AOTApplicationContextConfigurer.class") << "1234"
+        file("classes/demo/AOTApplicationContextConfigurer\$1.class") << "12"
+        file("classes/demo/Environment.class") << "123"
+        file("classes/META-INF/services/io.micronaut.context.ApplicationContextConfigurer") << "demo.AOTApplicationContextConfigurer\n"
+        file("classes/META-INF/services/io.micronaut.inject.BeanDefinitionReference") << "# comment\na.A\nb.B\n"
+        file("logs/resource-filter.txt") << "application.yml\nlogback.xml\n"
+
+        when:
+        def report = MicronautAotReportTask.createReport(optimizerOutput)
+
+        then:
+        report.totals == [
+                generators: 2,
+                classCount: 3,
+                classBytes: 9L,
+                sourceBytes: 40L,
+                excludedResources: 2,
+                inlinedYamlFiles: 1,
+                precomputedServiceTypes: 2,
+                estimatedClassesRemovedFromScanning: 3
+        ]
+        report.generators['demo.AOTApplicationContextConfigurer'].classCount == 2
+        report.generators['demo.AOTApplicationContextConfigurer'].classBytes == 6L
+        report.inlinedYamlFiles == ['application.yml']
+    }
+
+    def "computes the difference with a previous report"() {
+        def previous = [
+                totals: [generators: 1, classCount: 1, classBytes: 10],
+                generators: ['demo.A': [classCount: 1, classBytes: 10, sourceBytes: 5]]
+        ]
+        def current = [
+                totals: [generators: 2, classCount: 2, classBytes: 25L],
+                generators: [
+                        'demo.A': [classCount: 1, classBytes: 12L, sourceBytes: 5L],
+                        'demo.B': [classCount: 1, classBytes: 13L, sourceBytes: 5L]
+                ]
+        ]
+
+        when:
+        def diff = MicronautAotReportTask.diff(previous, current)
+
+        then:
+        diff.totals == [generators: 1L, classCount: 1L, classBytes: 15L]
+        diff.added == ['demo.B']
+        diff.removed == []
+        diff.classBytesChanged == ['demo.A': 2L]
+    }
+
+    private File file(String path) {
+        def file = optimizerOutput.resolve(path).toFile()
+        Files.createDirectories(file.parentFile.toPath())
+        file
+    }
+}
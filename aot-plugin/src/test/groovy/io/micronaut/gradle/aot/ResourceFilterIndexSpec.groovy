@@ -0,0 +1,56 @@
+package io.micronaut.gradle.aot
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ResourceFilterIndexSpec extends Specification {
+    @TempDir
+    Path tempDir
+
+    def "writes a sorted and deduplicated index"() {
+        def filter = tempDir.resolve("logs/resource-filter.txt")
+        Files.createDirectories(filter.parent)
+        filter.text = """logback.xml
+application.yml
+META-INF\\native-image\\foo.json
+logback.xml
+"""
+        def indexFile = tempDir.resolve("logs/resource-filter.idx")
+
+        when:
+        ResourceFilterIndex.write(filter, indexFile)
+
+        then:
+        Files.readAllLines(indexFile) == [
+                'META-INF/native-image/foo.json',
+                'application.yml',
+                'logback.xml'
+        ]
+
+        when:
+        def index = ResourceFilterIndex.read(indexFile, ['META-INF/services/'])
+
+        then:
+        index.size() == 3
+        index.isExcluded('logback.xml')
+        index.isExcluded('META-INF\\native-image\\foo.json')
+        index.isExcluded('META-INF/services/io.micronaut.inject.BeanDefinitionReference')
+        !index.isExcluded('application-test.yml')
+        !index.isExcluded('io/micronaut/Application.class')
+    }
+
+    def "filters a large number of entries"() {
+        def excludes = (0..<1000).collect { "resources/excluded-${it}.txt".toString() }
+        def index = ResourceFilterIndex.of(excludes.reverse(), ['META-INF/services/'])
+        def entries = (0..<20000).collect { "resources/excluded-${it}.txt".toString() }
+
+        when:
+        int excluded = entries.count { index.isExcluded(it) }
+
+        then:
+        excluded == 1000
+    }
+}
@@ -16,7 +16,6 @@
 package io.micronaut.gradle.configuration.validation.tasks;
 
 import org.gradle.api.DefaultTask;
-import org.gradle.api.GradleException;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
@@ -32,13 +31,11 @@ import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.OutputFile;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.jvm.toolchain.JavaLauncher;
-import org.gradle.process.ExecOperations;
-import org.gradle.process.ExecResult;
+import org.gradle.workers.WorkerExecutor;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -48,7 +45,8 @@ import java.util.List;
  * Cacheable task that runs Micronaut configuration validation and writes reports.
  * <p>
  * This task never fails the build when validation errors are found. Instead, it writes reports and
- * a {@link #getResultFile() result marker} containing the exit code.
+ * a {@link #getResultFile() result marker} containing the exit code, using a
+ * {@link ConfigurationValidationWorkAction}.
  * A separate {@code ConfigurationValidationTask} is responsible for failing the build based on the marker.
  *
  * @since 5.0.0
@@ -222,15 +220,18 @@ public abstract class ConfigurationValidationReportTask extends DefaultTask {
     public abstract Property<String> getJavaExecutable();
 
     /**
-     * Provides the {@link ExecOperations} used to run the validator.
+     * Provides the {@link WorkerExecutor} used to run the validator.
      *
-     * @return exec operations
+     * @return worker executor
      */
     @Inject
-    protected abstract ExecOperations getExecOperations();
+    protected abstract WorkerExecutor getWorkerExecutor();
 
     /**
      * Runs the configuration validator CLI and writes the result marker.
+     * <p>
+     * The validator runs as a work item, so that the report tasks of
+     * several scenarios of a project can run concurrently.
      *
      * @throws IOException if output cannot be written
      */
@@ -245,91 +246,75 @@ public abstract class ConfigurationValidationReportTask extends DefaultTask {
         Path resultFile = getResultFile().getAsFile().get().toPath();
         Files.createDirectories(resultFile.getParent());
 
-        ExecResult execResult = getExecOperations().javaexec(spec -> {
-            String explicitExecutable = getJavaExecutable().getOrNull();
-            if (explicitExecutable != null && !explicitExecutable.isBlank()) {
-                spec.setExecutable(explicitExecutable);
-            } else {
-                JavaLauncher launcher = getJavaLauncher().getOrNull();
-                if (launcher != null) {
-                    spec.setExecutable(launcher.getExecutablePath().getAsFile().getAbsolutePath());
-                }
-            }
-            spec.setClasspath(getValidatorClasspath());
-            spec.getMainClass().set(BOOTSTRAP_MAIN_CLASS);
-            spec.setIgnoreExitValue(true);
-
-            List<String> args = new ArrayList<>();
-            args.add("--classpath");
-            // The bootstrap creates an isolated classloader from --classpath.
-            // Include the validator tool classpath as well so it can run independently of the application dependencies.
-            args.add(getValidatorClasspath().getAsPath() + File.pathSeparator + getApplicationClasspath().getAsPath());
-            args.add("--out");
-            args.add(getOutputDirectory().get().getAsFile().getAbsolutePath());
-            args.add("--format");
-            args.add(getFormat().get());
-            for (String env : getEnvironments().getOrElse(List.of())) {
-                if (!env.isBlank()) {
-                    args.add("--env");
-                    args.add(env);
-                }
-            }
-            for (String sup : getSuppressions().getOrElse(List.of())) {
-                if (!sup.isBlank()) {
-                    args.add("--suppress");
-                    args.add(sup);
-                }
-            }
+        List<String> args = validatorArguments();
+        getWorkerExecutor().noIsolation().submit(ConfigurationValidationWorkAction.class, params -> {
+            params.getValidatorClasspath().from(getValidatorClasspath());
+            params.getJavaExecutable().set(javaExecutable());
+            params.getArguments().set(args);
+            params.getOutputDirectory().set(getOutputDirectory());
+            params.getResultFile().set(getResultFile());
+        });
+    }
 
-            List<String> suppressedInjectionErrors = getSuppressedInjectionErrors().getOrElse(List.of());
-            if (!suppressedInjectionErrors.isEmpty()) {
-                args.add("--suppress-inject-errors");
-                args.add(String.join(",", suppressedInjectionErrors));
-            }
+    private String javaExecutable() {
+        String explicitExecutable = getJavaExecutable().getOrNull();
+        if (explicitExecutable != null && !explicitExecutable.isBlank()) {
+            return explicitExecutable;
+        }
+        JavaLauncher launcher = getJavaLauncher().getOrNull();
+        if (launcher != null) {
+            return launcher.getExecutablePath().getAsFile().getAbsolutePath();
+        }
+        return null;
+    }
 
-            args.add("--fail-on-not-present");
-            args.add(String.valueOf(getFailOnNotPresent().getOrElse(true)));
-            args.add("--deduce-environments");
-            args.add(String.valueOf(getDeduceEnvironments().getOrElse(false)));
-            if (getValidateDependencyInjection().getOrElse(false)) {
-                args.add("--validate-dependency-injection");
+    private List<String> validatorArguments() {
+        List<String> args = new ArrayList<>();
+        args.add("--classpath");
+        // The bootstrap creates an isolated classloader from --classpath.
+        // Include the validator tool classpath as well so it can run independently of the application dependencies.
+        args.add(getValidatorClasspath().getAsPath() + File.pathSeparator + getApplicationClasspath().getAsPath());
+        args.add("--out");
+        args.add(getOutputDirectory().get().getAsFile().getAbsolutePath());
+        args.add("--format");
+        args.add(getFormat().get());
+        for (String env : getEnvironments().getOrElse(List.of())) {
+            if (!env.isBlank()) {
+                args.add("--env");
+                args.add(env);
             }
-
-            String baseDirPath = getProjectBaseDirPath().getOrNull();
-            File baseDir = baseDirPath != null ? new File(baseDirPath) : getProjectBaseDir().getAsFile().get();
-            args.add("--project-base-dir");
-            args.add(baseDir.getAbsolutePath());
-
-            List<String> resourcesDirs = getResourcesDirs().getOrElse(List.of());
-            if (!resourcesDirs.isEmpty()) {
-                args.add("--resources-dirs");
-                args.add(String.join(",", resourcesDirs));
+        }
+        for (String sup : getSuppressions().getOrElse(List.of())) {
+            if (!sup.isBlank()) {
+                args.add("--suppress");
+                args.add(sup);
             }
+        }
 
-            spec.args(args);
-        });
-
-        int exitCode = execResult.getExitValue();
-        writeResultMarker(resultFile, exitCode);
+        List<String> suppressedInjectionErrors = getSuppressedInjectionErrors().getOrElse(List.of());
+        if (!suppressedInjectionErrors.isEmpty()) {
+            args.add("--suppress-inject-errors");
+            args.add(String.join(",", suppressedInjectionErrors));
+        }
 
-        // Exit codes:
-        // 0 = no errors
-        // 1 = validation errors
-        // 2 = usage/configuration/exception
-        if (exitCode == 2) {
-            throw new GradleException("Micronaut configuration validation failed to execute. See reports in " + getOutputDirectory().getAsFile().get());
+        args.add("--fail-on-not-present");
+        args.add(String.valueOf(getFailOnNotPresent().getOrElse(true)));
+        args.add("--deduce-environments");
+        args.add(String.valueOf(getDeduceEnvironments().getOrElse(false)));
+        if (getValidateDependencyInjection().getOrElse(false)) {
+            args.add("--validate-dependency-injection");
         }
-    }
 
-    private void writeResultMarker(Path resultFile, int exitCode) throws IOException {
-        Path outDir = getOutputDirectory().getAsFile().get().toPath();
+        String baseDirPath = getProjectBaseDirPath().getOrNull();
+        File baseDir = baseDirPath != null ? new File(baseDirPath) : getProjectBaseDir().getAsFile().get();
+        args.add("--project-base-dir");
+        args.add(baseDir.getAbsolutePath());
 
-        // NOTE: This file must be reproducible for build caching. Do NOT use java.util.Properties#store,
-        // which adds a timestamp comment.
-        String content = "exitCode=" + exitCode + "\n" +
-            "outputDir=" + outDir.toAbsolutePath() + "\n" +
-            "jsonReport=" + outDir.resolve("configuration-errors.json") + "\n" +
-            "htmlReport=" + outDir.resolve("configuration-errors.html") + "\n";
-        Files.writeString(resultFile, content, StandardCharsets.UTF_8);
+        List<String> resourcesDirs = getResourcesDirs().getOrElse(List.of());
+        if (!resourcesDirs.isEmpty()) {
+            args.add("--resources-dirs");
+            args.add(String.join(",", resourcesDirs));
+        }
+        return args;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-2026 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.configuration.validation.tasks;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.process.ExecOperations;
+import org.gradle.process.ExecResult;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Work action which runs the configuration validator CLI for a scenario
+ * and writes its result marker.
+ * <p>
+ * Running the validator as a work item, rather than directly from the
+ * task action, lets Gradle validate several scenarios of a project
+ * (for example the production and test scenarios of a {@code build})
+ * concurrently, instead of starting their validator processes one
+ * after the other.
+ *
+ * @since 5.1.0
+ */
+public abstract class ConfigurationValidationWorkAction implements WorkAction<ConfigurationValidationWorkAction.Parameters> {
+
+    /**
+     * Parameters of the validation of a scenario.
+     */
+    public interface Parameters extends WorkParameters {
+        /**
+         * The validator tool classpath.
+         *
+         * @return the classpath
+         */
+        ConfigurableFileCollection getValidatorClasspath();
+
+        /**
+         * The Java executable, if the default one shouldn't be used.
+         *
+         * @return the executable
+         */
+        Property<String> getJavaExecutable();
+
+        /**
+         * The validator CLI arguments.
+         *
+         * @return the arguments
+         */
+        ListProperty<String> getArguments();
+
+        /**
+         * The report directory.
+         *
+         * @return the report directory
+         */
+        DirectoryProperty getOutputDirectory();
+
+        /**
+         * The result marker file.
+         *
+         * @return the marker file
+         */
+        RegularFileProperty getResultFile();
+    }
+
+    /**
+     * Default constructor.
+     */
+    public ConfigurationValidationWorkAction() {
+    }
+
+    /**
+     * Provides the {@link ExecOperations} used to run the validator.
+     *
+     * @return exec operations
+     */
+    @Inject
+    protected abstract ExecOperations getExecOperations();
+
+    @Override
+    public void execute() {
+        Parameters parameters = getParameters();
+        ExecResult execResult = getExecOperations().javaexec(spec -> {
+            String executable = parameters.getJavaExecutable().getOrNull();
+            if (executable != null) {
+                spec.setExecutable(executable);
+            }
+            spec.setClasspath(parameters.getValidatorClasspath());
+            spec.getMainClass().set(ConfigurationValidationReportTask.BOOTSTRAP_MAIN_CLASS);
+            spec.setIgnoreExitValue(true);
+            spec.args(parameters.getArguments().get());
+        });
+
+        int exitCode = execResult.getExitValue();
+        Path outDir = parameters.getOutputDirectory().getAsFile().get().toPath();
+        writeResultMarker(parameters.getResultFile().getAsFile().get().toPath(), outDir, exitCode);
+
+        // Exit codes:
+        // 0 = no errors
+        // 1 = validation errors
+        // 2 = usage/configuration/exception
+        if (exitCode == 2) {
+            throw new GradleException("Micronaut configuration validation failed to execute. See reports in " + outDir);
+        }
+    }
+
+    private static void writeResultMarker(Path resultFile, Path outDir, int exitCode) {
+        // NOTE: This file must be reproducible for build caching. Do NOT use java.util.Properties#store,
+        // which adds a timestamp comment.
+        String content = "exitCode=" + exitCode + "\n" +
+            "outputDir=" + outDir.toAbsolutePath() + "\n" +
+            "jsonReport=" + outDir.resolve("configuration-errors.json") + "\n" +
+            "htmlReport=" + outDir.resolve("configuration-errors.html") + "\n";
+        try {
+            Files.writeString(resultFile, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -5,6 +5,10 @@ import org.gradle.testkit.runner.TaskOutcome
 import spock.lang.Issue
 import spock.lang.Requires
 
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+
 class BasicMicronautAOTSpec extends AbstractAOTPluginSpec {
 
     def "generates optimizations for #runtime (#kind)"() {
@@ -288,6 +292,57 @@ class BasicMicronautAOTSpec extends AbstractAOTPluginSpec {
         result.task(":prepareJitOptimizations").outcome == TaskOutcome.FROM_CACHE
     }
 
+    def "prepare optimizations tasks are relocatable"() {
+        withSample("aot/basic-app")
+        withPlugins(Plugins.MINIMAL_APPLICATION)
+        def cacheDir = testProjectDir.newFolder("build-cache")
+        file("gradle.properties") << "\norg.gradle.caching=true\n"
+        settingsFile << """
+            buildCache {
+                local {
+                    directory = new File("${cacheDir.absolutePath.replace('\\', '/')}")
+                }
+            }
+        """
+        file("build.gradle") << """
+            tasks.matching { it.name in ["prepareJitOptimizations", "prepareNativeOptimizations"] }.configureEach {
+                inputs.property("seed", "${System.currentTimeMillis()}")
+            }
+        """
+
+        when:
+        def result = build "prepareJitOptimizations", "prepareNativeOptimizations"
+
+        then:
+        result.task(":prepareJitOptimizations").outcome == TaskOutcome.SUCCESS
+        result.task(":prepareNativeOptimizations").outcome == TaskOutcome.SUCCESS
+        !result.output.contains("are not relocatable")
+
+        when: "the same project is built from a different directory"
+        def relocated = testProjectDir.newFolder("relocated").toPath()
+        copyProject(baseDir, relocated)
+        baseDir = relocated
+        result = build "prepareJitOptimizations", "prepareNativeOptimizations"
+
+        then:
+        result.task(":prepareJitOptimizations").outcome == TaskOutcome.FROM_CACHE
+        result.task(":prepareNativeOptimizations").outcome == TaskOutcome.FROM_CACHE
+    }
+
+    private static void copyProject(Path from, Path into) {
+        Set<String> excludedRoots = ["build", "build-cache", ".gradle", into.fileName.toString()] as Set<String>
+        Files.walk(from)
+                .filter { it == from || !excludedRoots.contains(from.relativize(it).getName(0).toString()) }
+                .forEach { source ->
+                    Path target = into.resolve(from.relativize(source).toString())
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(target)
+                    } else {
+                        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING)
+                    }
+                }
+    }
+
     private List<GString> calculatePossiblePackages(File outputDir) {
         def list = new ArrayList()
         outputDir.eachDirRecurse { list.add(subpath(it, outputDir)) }
@@ -29,6 +29,20 @@ ENTRYPOINT ["java", "-jar", "/home/app/application.jar"]
 
     }
 
+    def "each target runtime has its own runner jar"() {
+        withSample("aot/basic-app")
+
+        when:
+        def result = build "optimizedRunnerJitJar", "optimizedRunnerNativeJar", "--parallel"
+
+        then:
+        result.task(":optimizedRunnerJitJar").outcome == TaskOutcome.SUCCESS
+        result.task(":optimizedRunnerNativeJar").outcome == TaskOutcome.SUCCESS
+        def jars = file("build/libs").listFiles()*.name
+        jars.any { it.endsWith("-optimized-runner.jar") }
+        jars.any { it.endsWith("-optimized-native-runner.jar") }
+    }
+
     @IgnoreIf({ os.windows })
     @IgnoreIf({ !AbstractGradleBuildSpec.dockerAvailable })
     def "generates an optimized docker image"() {
@@ -44,6 +44,85 @@ class ShadowMicronautAOTSpec extends AbstractAOTPluginSpec {
 
     }
 
+    def "optimized fat jar is compatible with the configuration cache"() {
+        withSample("aot/with-shadow")
+
+        when:
+        def result = build("optimizedJitJarAll", "--configuration-cache")
+
+        then:
+        file("build/libs/basic-app-0.1-all-optimized.jar").exists()
+        def output = result.output.toLowerCase()
+        output.contains('configuration cache entry stored') ||
+            output.contains('support for using a java agent with testkit builds is not yet implemented with the configuration cache')
+
+        when:
+        result = build("optimizedJitJarAll", "--configuration-cache")
+        output = result.output.toLowerCase()
+
+        then:
+        output.contains('configuration cache entry reused') ||
+            output.contains('support for using a java agent with testkit builds is not yet implemented with the configuration cache')
+    }
+
+    def "optimized fat jar inherits the main jar manifest without realizing the shadow jar task"() {
+        withSample("aot/with-shadow")
+        buildFile << """
+            micronaut {
+                aot {
+                    fatJarExcludes.add("META-INF/excluded-*.txt")
+                }
+            }
+            tasks.named("jar", Jar) {
+                manifest {
+                    attributes("X-Inherited": "yes")
+                }
+            }
+            tasks.named("shadowJar") {
+                println("Configuring shadowJar")
+            }
+        """
+        file("src/main/resources/META-INF/excluded-resource.txt").text = "excluded"
+
+        when:
+        def result = build("optimizedJitJarAll")
+
+        then:
+        !result.output.contains("Configuring shadowJar")
+        def jar = new java.util.jar.JarFile(file("build/libs/basic-app-0.1-all-optimized.jar"))
+        jar.manifest.mainAttributes.getValue("X-Inherited") == "yes"
+        jar.getEntry("META-INF/excluded-resource.txt") == null
+
+        cleanup:
+        jar?.close()
+    }
+
+    def "fat jar excludes apply to both shadow jars"() {
+        withSample("aot/with-shadow")
+        buildFile << """
+            micronaut {
+                aot {
+                    fatJarExcludes.add("META-INF/excluded-*.txt")
+                }
+            }
+        """
+        file("src/main/resources/META-INF/excluded-resource.txt").text = "excluded"
+
+        when:
+        build("shadowJar", "optimizedJitJarAll")
+
+        then:
+        def jars = [
+                new java.util.jar.JarFile(file("build/libs/basic-app-0.1-all.jar")),
+                new java.util.jar.JarFile(file("build/libs/basic-app-0.1-all-optimized.jar"))
+        ]
+        jars.every { it.getEntry("META-INF/excluded-resource.txt") == null }
+        jars.every { it.getEntry("demo/app/Application.class") != null }
+
+        cleanup:
+        jars*.close()
+    }
+
     static String getJavaExecutable() {
         String exec = System.getProperty("java.home") + "/bin/java".replace((char) '/', (char) File.separatorChar)
         if (System.getProperty("os.name").toLowerCase().contains("windows")) {
@@ -25,6 +25,22 @@ class ConfigurationValidationFunctionalTest extends AbstractFunctionalTest {
         file("build/reports/micronaut/config-validation/production/result.properties").exists()
     }
 
+    def "validates production and test scenarios in the same build"() {
+        given:
+        withSample("configuration-validation/basic-app")
+
+        when:
+        def result = build("configurationValidation", "testConfigurationValidation")
+
+        then:
+        result.task(":configurationValidationReport").outcome == TaskOutcome.SUCCESS
+        result.task(":testConfigurationValidationReport").outcome == TaskOutcome.SUCCESS
+        result.task(":configurationValidation").outcome == TaskOutcome.SUCCESS
+        result.task(":testConfigurationValidation").outcome == TaskOutcome.SUCCESS
+        file("build/reports/micronaut/config-validation/production/result.properties").text.contains("exitCode=0")
+        file("build/reports/micronaut/config-validation/test/result.properties").text.contains("exitCode=0")
+    }
+
     def "configurationValidationReport does not include duplicate logback resources on classpath"() {
         given:
         withSample("configuration-validation/basic-app")
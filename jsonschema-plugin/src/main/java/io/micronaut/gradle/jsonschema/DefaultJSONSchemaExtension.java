@@ -2,6 +2,7 @@ package io.micronaut.gradle.jsonschema;
 
 import io.micronaut.gradle.PluginsHelper;
 import io.micronaut.gradle.jsonschema.tasks.AbstractJsonSchemaGenerator;
+import io.micronaut.gradle.jsonschema.tasks.DownloadJsonSchema;
 import io.micronaut.gradle.jsonschema.tasks.JsonSchemaFileGenerator;
 import io.micronaut.gradle.jsonschema.tasks.JsonSchemaFolderGenerator;
 import io.micronaut.gradle.jsonschema.tasks.JsonSchemaUrlGenerator;
@@ -38,10 +39,21 @@ public abstract class DefaultJSONSchemaExtension implements JSONSchemaExtension
         configureCommonExtensionDefaults(urlSpec);
         urlSpec.getInputUrl().convention("");
         spec.execute(urlSpec);
-        var generator = project.getTasks().register(generateTaskName(url.substring(url.lastIndexOf("/") + 1)), JsonSchemaUrlGenerator.class, task -> {
+        String schemaName = url.substring(url.lastIndexOf("/") + 1);
+        var download = project.getTasks().register(downloadTaskName(schemaName), DownloadJsonSchema.class, task -> {
+            task.setDescription("Downloads a JSON Schema file and the schemas it refers to");
+            task.getUrl().convention(url);
+            task.getAcceptedUrlPatterns().convention(urlSpec.getAcceptedUrlPatterns());
+            task.getOffline().convention(project.getGradle().getStartParameter().isOffline());
+            task.getCacheDirectory().fileValue(new File(project.getGradle().getGradleUserHomeDir(), "caches/micronaut-jsonschema"));
+            task.getSnapshotDirectory().convention(project.getLayout().getBuildDirectory().dir("jsonschema-snapshots/" + task.getName()));
+        });
+        var generator = project.getTasks().register(generateTaskName(schemaName), JsonSchemaUrlGenerator.class, task -> {
             task.setDescription("Generates source files from an URL of a JSON Schema file");
             configureCommonProperties(task, urlSpec);
             task.getJsonURL().convention(url);
+            task.getSnapshotDirectory().convention(download.flatMap(DownloadJsonSchema::getSnapshotDirectory));
+            task.getSnapshotEntry().convention(download.flatMap(DownloadJsonSchema::getSnapshotEntry));
         });
         addSourceDir(generator);
     }
@@ -57,6 +69,7 @@ public abstract class DefaultJSONSchemaExtension implements JSONSchemaExtension
                 task.setDescription("Generates source files from an URL of a JSON Schema file");
                 configureCommonProperties(task, fileSpec);
                 task.getInputDirectory().convention(regularDirProperty.fileValue(file));
+                task.getIncremental().convention(true);
             });
             addSourceDir(generator);
         } else {
@@ -112,6 +125,11 @@ public abstract class DefaultJSONSchemaExtension implements JSONSchemaExtension
         return mainSrcDir(t, "java");
     }
 
+    private static String downloadTaskName(String name) {
+        int endIndex = name.contains(".") ? name.indexOf(".") : name.length();
+        return "downloadJsonSchema" + capitalize(name.substring(0, endIndex));
+    }
+
     private static String generateTaskName(String name) {
         int endIndex = name.contains(".") ? name.indexOf(".") : name.length();
         return "generatingSourcesFrom" + capitalize(name.substring(0, endIndex));
@@ -26,6 +26,8 @@ import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
 import javax.inject.Inject;
@@ -63,16 +65,29 @@ public abstract class AbstractJsonSchemaGenerator<W extends AbstractJsonSchemaWo
     protected abstract void configureWorkerParameters(P params);
 
     @TaskAction
-    public final void execute() {
-        getWorkerExecutor().classLoaderIsolation(spec -> spec.getClasspath().from(getClasspath()))
-                .submit(getWorkerAction(), params -> {
-                    params.getLang().set(getLanguage());
-                    params.getAcceptedUrlPatterns().set(getAcceptedUrlPatterns());
-                    params.getPackageName().set(getPackageName());
-                    params.getOutputFileName().set(getOutputFileName());
-                    params.getOutputDirectory().set(getOutputDirectory());
-                    configureWorkerParameters(params);
-                });
+    public final void execute(InputChanges inputChanges) {
+        WorkQueue workQueue = getWorkerExecutor().classLoaderIsolation(spec -> spec.getClasspath().from(getClasspath()));
+        submit(workQueue, inputChanges);
+    }
+
+    /**
+     * Submits the generation work. By default, a single work item
+     * generates all sources.
+     *
+     * @param workQueue the work queue
+     * @param inputChanges the changes of the inputs since the previous execution
+     */
+    protected void submit(WorkQueue workQueue, InputChanges inputChanges) {
+        workQueue.submit(getWorkerAction(), this::configureParameters);
+    }
+
+    protected final void configureParameters(P params) {
+        params.getLang().set(getLanguage());
+        params.getAcceptedUrlPatterns().set(getAcceptedUrlPatterns());
+        params.getPackageName().set(getPackageName());
+        params.getOutputFileName().set(getOutputFileName());
+        params.getOutputDirectory().set(getOutputDirectory());
+        configureWorkerParameters(params);
     }
 }
 
@@ -10,11 +10,14 @@ import io.micronaut.jsonschema.generator.SourceGenerator;
 import io.micronaut.jsonschema.generator.utils.SourceGeneratorConfigBuilder;
 import io.micronaut.jsonschema.generator.loaders.UrlLoader;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 public abstract class AbstractJsonSchemaWorkAction<T extends AbstractJsonSchemaWorkAction.JsonSchemaParameters> implements WorkAction<T> {
+
     interface JsonSchemaParameters extends WorkParameters {
 
         Property<String> getLang();
@@ -34,24 +37,37 @@ public abstract class AbstractJsonSchemaWorkAction<T extends AbstractJsonSchemaW
     public void execute() {
         var parameters = getParameters();
         var lang = parameters.getLang().get();
-        var langGenerator = new SourceGenerator(lang.toUpperCase());
 
         List<String> allowedUrlPatterns = parameters.getAcceptedUrlPatterns().get();
         if (!allowedUrlPatterns.isEmpty()) {
             UrlLoader.setAllowedUrlPatterns(allowedUrlPatterns);
         }
 
-        Path outputPath = parameters.getOutputDirectory().dir("src/main/" + lang.toLowerCase()).get().getAsFile().toPath();
+        generate(new SourceGenerator(lang.toUpperCase()));
+    }
+
+    /**
+     * Generates the sources of this work item. Work items which generate
+     * sources from several schemas reuse the supplied generator for each
+     * of them, which is only used by this work item.
+     * @param generator the source generator
+     */
+    protected void generate(SourceGenerator generator) {
+        generate(generator, getParameters().getOutputDirectory().get().getAsFile(), this::configureBuilder);
+    }
+
+    protected final void generate(SourceGenerator generator, File outputDirectory, Consumer<SourceGeneratorConfigBuilder> configurer) {
+        var parameters = getParameters();
+        Path outputPath = outputDirectory.toPath().resolve("src/main/" + parameters.getLang().get().toLowerCase());
         String outputPackageName = parameters.getPackageName().get();
         String outputFileName = parameters.getOutputFileName().get();
         var builder = new SourceGeneratorConfigBuilder()
                 .withOutputFolder(outputPath)
                 .withOutputPackageName(outputPackageName)
                 .withOutputFileName(outputFileName);
-        configureBuilder(builder);
-
+        configurer.accept(builder);
         try {
-            langGenerator.generate(builder.build());
+            generator.generate(builder.build());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.jsonschema.tasks;
+
+import groovy.json.JsonException;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Downloads a JSON schema and the remote schemas it refers to into a
+ * local snapshot, which is then used as the input of source generation.
+ * Downloaded schemas are kept in a cache and revalidated on each build,
+ * using ETag and Last-Modified headers, and references between
+ * downloaded schemas are rewritten to relative references, so that the
+ * snapshot can be used without network access.
+ */
+@DisableCachingByDefault(because = "Downloads remote resources, which are revalidated on each build")
+public abstract class DownloadJsonSchema extends DefaultTask {
+    /**
+     * The URL of the schema.
+     *
+     * @return the URL
+     */
+    @Input
+    public abstract Property<String> getUrl();
+
+    /**
+     * The patterns which URLs must match to be downloaded. When empty,
+     * all URLs are accepted.
+     *
+     * @return the accepted URL patterns
+     */
+    @Input
+    @Optional
+    public abstract ListProperty<String> getAcceptedUrlPatterns();
+
+    /**
+     * Whether only cached schemas can be used.
+     *
+     * @return the offline property
+     */
+    @Internal
+    public abstract Property<Boolean> getOffline();
+
+    /**
+     * The directory where downloaded schemas are cached.
+     *
+     * @return the cache directory
+     */
+    @Internal
+    public abstract DirectoryProperty getCacheDirectory();
+
+    /**
+     * The directory where the snapshot of the schemas is written.
+     *
+     * @return the snapshot directory
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getSnapshotDirectory();
+
+    /**
+     * The path of the schema file in the snapshot directory.
+     *
+     * @return the path of the schema file
+     */
+    @Internal
+    public Provider<String> getSnapshotEntry() {
+        return getUrl().map(url -> snapshotPath(URI.create(url)));
+    }
+
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
+    public DownloadJsonSchema() {
+        // schemas must be revalidated on each build
+        getOutputs().upToDateWhen(t -> false);
+    }
+
+    @TaskAction
+    void download() {
+        var cache = new SchemaCache(getCacheDirectory().get().getAsFile().toPath(), getOffline().getOrElse(false), getLogger());
+        List<Pattern> acceptedPatterns = getAcceptedUrlPatterns().getOrElse(List.of()).stream().map(Pattern::compile).toList();
+        URI root = withoutFragment(URI.create(getUrl().get()));
+        if (!isAccepted(root, acceptedPatterns)) {
+            throw new GradleException("JSON schema URL " + root + " doesn't match any of the accepted URL patterns " + getAcceptedUrlPatterns().get());
+        }
+        Map<URI, Object> schemas = new LinkedHashMap<>();
+        Deque<URI> queue = new ArrayDeque<>();
+        queue.add(root);
+        try {
+            while (!queue.isEmpty()) {
+                URI uri = queue.poll();
+                if (schemas.containsKey(uri)) {
+                    continue;
+                }
+                Object schema = parse(uri, new String(cache.fetch(uri), StandardCharsets.UTF_8));
+                schemas.put(uri, schema);
+                SchemaReferences.visit(schema, ref -> {
+                    URI reference = resolve(uri, ref);
+                    if (reference != null && !schemas.containsKey(reference)) {
+                        if (isAccepted(reference, acceptedPatterns)) {
+                            queue.add(reference);
+                        } else {
+                            getLogger().warn("Not downloading JSON schema {} because it doesn't match the accepted URL patterns", reference);
+                        }
+                    }
+                    return ref;
+                });
+            }
+            cache.cleanup();
+            writeSnapshot(schemas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to download JSON schema " + root, e);
+        }
+    }
+
+    private void writeSnapshot(Map<URI, Object> schemas) throws IOException {
+        Path snapshotDirectory = getSnapshotDirectory().get().getAsFile().toPath();
+        getFileSystemOperations().delete(spec -> spec.delete(snapshotDirectory.toFile()));
+        for (Map.Entry<URI, Object> schema : schemas.entrySet()) {
+            Path path = Path.of(snapshotPath(schema.getKey()));
+            SchemaReferences.visit(schema.getValue(), ref -> {
+                URI reference = resolve(schema.getKey(), ref);
+                if (reference == null || !schemas.containsKey(reference)) {
+                    return ref;
+                }
+                String fragment = ref.contains("#") ? ref.substring(ref.indexOf('#')) : "";
+                String relativePath = path.getParent().relativize(Path.of(snapshotPath(reference))).toString().replace('\\', '/');
+                return relativePath + fragment;
+            });
+            Path target = snapshotDirectory.resolve(path.toString());
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, SchemaReferences.toJson(schema.getValue()), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Object parse(URI uri, String schema) {
+        try {
+            return SchemaReferences.parse(schema);
+        } catch (JsonException e) {
+            throw new GradleException("JSON schema " + uri + " isn't a valid JSON document: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isAccepted(URI uri, List<Pattern> patterns) {
+        return patterns.isEmpty() || patterns.stream().anyMatch(p -> p.matcher(uri.toString()).matches());
+    }
+
+    private static URI resolve(URI base, String ref) {
+        if (ref.isEmpty() || ref.startsWith("#")) {
+            return null;
+        }
+        try {
+            URI reference = withoutFragment(base.resolve(new URI(ref)));
+            String scheme = reference.getScheme();
+            return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme) ? reference : null;
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static URI withoutFragment(URI uri) {
+        String value = uri.normalize().toString();
+        int fragment = value.indexOf('#');
+        return fragment < 0 ? URI.create(value) : URI.create(value.substring(0, fragment));
+    }
+
+    /**
+     * Returns the path of a schema in the snapshot directory, which
+     * mirrors the host and path of its URL.
+     * @param uri the schema URL
+     * @return the relative path
+     */
+    static String snapshotPath(URI uri) {
+        var path = new StringBuilder(uri.getHost() == null ? "local" : uri.getHost());
+        if (uri.getPort() != -1) {
+            path.append('_').append(uri.getPort());
+        }
+        String uriPath = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+        for (String segment : uriPath.split("/")) {
+            if (!segment.isEmpty() && !segment.equals(".") && !segment.equals("..")) {
+                path.append('/').append(segment);
+            }
+        }
+        if (uriPath.endsWith("/")) {
+            path.append("/index.json");
+        }
+        if (uri.getRawQuery() != null) {
+            path.append('_').append(SchemaCache.sha256(uri.getRawQuery().getBytes(StandardCharsets.UTF_8)), 0, 8);
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.jsonschema.tasks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Records which sources were generated from each schema of a folder,
+ * so that the sources of a schema can be replaced when it changes and
+ * deleted when it is removed. A source may be generated from several
+ * schemas, for example when they refer to the same type, in which case
+ * it is only deleted once none of them generates it anymore.
+ * <p>
+ * The index is stored as one tab separated schema and source pair per
+ * line, both relative to their root directory.
+ */
+final class GeneratedSourcesIndex {
+    private final Map<String, Set<String>> sourcesBySchema = new TreeMap<>();
+
+    /**
+     * Loads an index.
+     * @param file the index file
+     * @return the index, which is empty if the file doesn't exist
+     */
+    static GeneratedSourcesIndex load(Path file) {
+        var index = new GeneratedSourcesIndex();
+        if (!Files.isRegularFile(file)) {
+            return index;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf('\t');
+                if (separator > 0) {
+                    index.sourcesBySchema.computeIfAbsent(line.substring(0, separator), unused -> new TreeSet<>())
+                            .add(line.substring(separator + 1));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return index;
+    }
+
+    /**
+     * Records the sources generated from a schema, replacing the
+     * sources previously recorded for it.
+     * @param schema the schema path
+     * @param sources the paths of the generated sources
+     */
+    void record(String schema, Collection<String> sources) {
+        sourcesBySchema.put(schema, new TreeSet<>(sources));
+    }
+
+    /**
+     * Removes a schema from the index.
+     * @param schema the schema path
+     * @return the sources which were generated from the schema and
+     * which are not generated from any other schema
+     */
+    Set<String> remove(String schema) {
+        Set<String> sources = sourcesBySchema.remove(schema);
+        if (sources == null) {
+            return Set.of();
+        }
+        Set<String> orphans = new TreeSet<>(sources);
+        sourcesBySchema.values().forEach(orphans::removeAll);
+        return orphans;
+    }
+
+    Set<String> getSources(String schema) {
+        return sourcesBySchema.getOrDefault(schema, Set.of());
+    }
+
+    void write(Path file) {
+        List<String> lines = new ArrayList<>();
+        sourcesBySchema.forEach((schema, sources) -> sources.forEach(source -> lines.add(schema + '\t' + source)));
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -16,13 +16,63 @@
 package io.micronaut.gradle.jsonschema.tasks;
 
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.gradle.workers.WorkQueue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public abstract class JsonSchemaFolderGenerator extends AbstractJsonSchemaGenerator<JsonSchemaFolderWorkAction, JsonSchemaFolderWorkAction.FolderParameters> {
+    static final String INDEX_FILE = "jsonschema-sources.index";
+
+    private static final Pattern REF = Pattern.compile("\"\\$ref\"\\s*:\\s*\"([^\"#]*)");
 
     @InputDirectory
+    @Incremental
+    @PathSensitive(PathSensitivity.RELATIVE)
     public abstract DirectoryProperty getInputDirectory();
 
+    /**
+     * Whether sources should be generated incrementally. When enabled,
+     * each schema is generated separately, and only the
+     * schemas which changed since the previous execution, or which refer
+     * to a schema which changed, are generated again. This is ignored
+     * when an output file name is set.
+     *
+     * @return the incremental property
+     */
+    @Input
+    @Optional
+    public abstract Property<Boolean> getIncremental();
+
     @Override
     protected Class<JsonSchemaFolderWorkAction> getWorkerAction() {
         return JsonSchemaFolderWorkAction.class;
@@ -32,5 +82,178 @@ public abstract class JsonSchemaFolderGenerator extends AbstractJsonSchemaGenera
     protected void configureWorkerParameters(JsonSchemaFolderWorkAction.FolderParameters params) {
         params.getInputDirectory().set(getInputDirectory());
     }
-}
 
+    @Override
+    protected void submit(WorkQueue workQueue, InputChanges inputChanges) {
+        Path outputDirectory = getOutputDirectory().get().getAsFile().toPath();
+        Path indexFile = outputDirectory.resolve(INDEX_FILE);
+        // the output file name applies to the folder as a whole, so it cannot be used by per schema items
+        boolean hasOutputFileName = !getOutputFileName().getOrElse("").isEmpty();
+        if (!getIncremental().getOrElse(true) || hasOutputFileName) {
+            if (hasOutputFileName) {
+                getLogger().info("Generating sources from the whole directory because an output file name is set");
+            }
+            deleteRecursively(indexFile);
+            super.submit(workQueue, inputChanges);
+            return;
+        }
+        Path inputDirectory = getInputDirectory().get().getAsFile().toPath().toAbsolutePath().normalize();
+        Set<String> changed = new TreeSet<>();
+        Set<String> removed = new TreeSet<>();
+        GeneratedSourcesIndex index;
+        if (inputChanges.isIncremental() && Files.isRegularFile(indexFile)) {
+            index = GeneratedSourcesIndex.load(indexFile);
+            for (FileChange change : inputChanges.getFileChanges(getInputDirectory())) {
+                if (change.getFileType() != FileType.DIRECTORY && isSchema(change.getNormalizedPath())) {
+                    (change.getChangeType() == ChangeType.REMOVED ? removed : changed).add(change.getNormalizedPath());
+                }
+            }
+            changed.addAll(dependentsOf(inputDirectory, union(changed, removed)));
+            getLogger().info("Generating sources from {} changed schemas, deleting sources of {} removed schemas", changed.size(), removed.size());
+        } else {
+            deleteRecursively(outputDirectory);
+            index = new GeneratedSourcesIndex();
+            changed.addAll(schemasOf(inputDirectory));
+        }
+        for (String schema : union(changed, removed)) {
+            for (String source : index.remove(schema)) {
+                deleteSource(outputDirectory, outputDirectory.resolve(source));
+            }
+        }
+        Path stagingDirectory = getTemporaryDir().toPath();
+        deleteRecursively(stagingDirectory);
+        List<String> schemas = List.copyOf(changed);
+        if (!schemas.isEmpty()) {
+            // a single work item generates all schemas, so that they share the same source generator
+            workQueue.submit(getWorkerAction(), params -> {
+                configureParameters(params);
+                params.getSchemas().set(schemas);
+                params.getOutputDirectory().set(stagingDirectory.toFile());
+            });
+            workQueue.await();
+        }
+        for (int i = 0; i < schemas.size(); i++) {
+            index.record(schemas.get(i), install(stagingDirectory.resolve(String.valueOf(i)), outputDirectory));
+        }
+        index.write(indexFile);
+        deleteRecursively(stagingDirectory);
+    }
+
+    private static boolean isSchema(String path) {
+        return path.endsWith(".json");
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new TreeSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    private static List<String> schemasOf(Path inputDirectory) {
+        try (Stream<Path> files = Files.walk(inputDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> relativePath(inputDirectory, file))
+                    .filter(JsonSchemaFolderGenerator::isSchema)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the schemas which directly or transitively refer to one of
+     * the supplied schemas, since their sources may include types which
+     * are derived from them.
+     */
+    private static Set<String> dependentsOf(Path inputDirectory, Set<String> schemas) {
+        Map<String, Set<String>> dependents = new HashMap<>();
+        for (String schema : schemasOf(inputDirectory)) {
+            Path schemaFile = inputDirectory.resolve(schema);
+            String contents;
+            try {
+                contents = Files.readString(schemaFile, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Matcher matcher = REF.matcher(contents);
+            while (matcher.find()) {
+                String ref = matcher.group(1);
+                if (!ref.isEmpty() && !ref.contains(":")) {
+                    Path target = schemaFile.getParent().resolve(ref).normalize();
+                    if (target.startsWith(inputDirectory)) {
+                        dependents.computeIfAbsent(relativePath(inputDirectory, target), unused -> new HashSet<>()).add(schema);
+                    }
+                }
+            }
+        }
+        Set<String> result = new TreeSet<>();
+        Deque<String> queue = new ArrayDeque<>(schemas);
+        while (!queue.isEmpty()) {
+            for (String dependent : dependents.getOrDefault(queue.poll(), Set.of())) {
+                if (!schemas.contains(dependent) && result.add(dependent)) {
+                    queue.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<String> install(Path schemaOutput, Path outputDirectory) {
+        if (!Files.isDirectory(schemaOutput)) {
+            return List.of();
+        }
+        List<String> sources = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(schemaOutput)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String source = relativePath(schemaOutput, file);
+                Path target = outputDirectory.resolve(source);
+                Files.createDirectories(target.getParent());
+                Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                sources.add(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sources;
+    }
+
+    private static void deleteSource(Path outputDirectory, Path source) {
+        try {
+            Files.deleteIfExists(source);
+            Path parent = source.getParent();
+            while (parent != null && !parent.equals(outputDirectory) && isEmptyDirectory(parent)) {
+                Files.delete(parent);
+                parent = parent.getParent();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isEmptyDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    private static void deleteRecursively(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String relativePath(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+}
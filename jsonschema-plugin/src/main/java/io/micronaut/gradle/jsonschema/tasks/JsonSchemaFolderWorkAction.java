@@ -1,17 +1,53 @@
 package io.micronaut.gradle.jsonschema.tasks;
 
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
 
+import io.micronaut.jsonschema.generator.SourceGenerator;
 import io.micronaut.jsonschema.generator.utils.SourceGeneratorConfigBuilder;
 
+import java.io.File;
+import java.util.List;
+
 public abstract class JsonSchemaFolderWorkAction extends AbstractJsonSchemaWorkAction<JsonSchemaFolderWorkAction.FolderParameters> {
+    private static final Logger LOGGER = Logging.getLogger(JsonSchemaFolderWorkAction.class);
+
     protected interface FolderParameters extends JsonSchemaParameters {
         DirectoryProperty getInputDirectory();
+
+        /**
+         * The schemas of the input directory to generate sources from,
+         * relative to it. The sources of each schema are generated into
+         * a subdirectory of the output directory, named after the index
+         * of the schema. When empty, sources are generated from all
+         * schemas of the directory.
+         *
+         * @return the schemas
+         */
+        ListProperty<String> getSchemas();
     }
 
     @Override
     protected void configureBuilder(SourceGeneratorConfigBuilder builder) {
+        builder.withInputFolder(getParameters().getInputDirectory().get().getAsFile().toPath());
+    }
+
+    @Override
+    protected void generate(SourceGenerator generator) {
         var parameters = getParameters();
-        builder.withInputFolder(parameters.getInputDirectory().get().getAsFile().toPath());
+        List<String> schemas = parameters.getSchemas().getOrElse(List.of());
+        if (schemas.isEmpty()) {
+            super.generate(generator);
+            return;
+        }
+        File inputDirectory = parameters.getInputDirectory().get().getAsFile();
+        File outputDirectory = parameters.getOutputDirectory().get().getAsFile();
+        for (int i = 0; i < schemas.size(); i++) {
+            File schemaFile = new File(inputDirectory, schemas.get(i));
+            generate(generator, new File(outputDirectory, String.valueOf(i)), builder -> builder.withJsonFile(schemaFile));
+        }
+        LOGGER.info("Generated sources from {} schemas with a single source generator", schemas.size());
     }
 }
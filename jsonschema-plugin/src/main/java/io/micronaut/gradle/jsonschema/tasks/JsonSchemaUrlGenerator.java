@@ -15,14 +15,41 @@
  */
 package io.micronaut.gradle.jsonschema.tasks;
 
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputDirectory;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 
+@CacheableTask
 public abstract class JsonSchemaUrlGenerator extends AbstractJsonSchemaGenerator<JsonSchemaUrlWorkAction, JsonSchemaUrlWorkAction.UrlParameters> {
 
     @Input
     public abstract Property<String> getJsonURL();
 
+    /**
+     * The local snapshot of the schema and of the schemas it refers to.
+     * When set, sources are generated from the snapshot instead of the URL.
+     *
+     * @return the snapshot directory
+     */
+    @InputDirectory
+    @PathSensitive(PathSensitivity.RELATIVE)
+    @Optional
+    public abstract DirectoryProperty getSnapshotDirectory();
+
+    /**
+     * The path of the schema file in the snapshot directory.
+     *
+     * @return the path of the schema file
+     */
+    @Input
+    @Optional
+    public abstract Property<String> getSnapshotEntry();
+
     @Override
     protected Class<JsonSchemaUrlWorkAction> getWorkerAction() {
         return JsonSchemaUrlWorkAction.class;
@@ -31,6 +58,9 @@ public abstract class JsonSchemaUrlGenerator extends AbstractJsonSchemaGenerator
     @Override
     protected void configureWorkerParameters(JsonSchemaUrlWorkAction.UrlParameters params) {
         params.getJsonURL().set(getJsonURL());
+        if (getSnapshotDirectory().isPresent()) {
+            params.getJsonFile().set(getSnapshotDirectory().file(getSnapshotEntry()));
+        }
     }
 }
 
@@ -1,5 +1,6 @@
 package io.micronaut.gradle.jsonschema.tasks;
 
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
 
 import io.micronaut.jsonschema.generator.utils.SourceGeneratorConfigBuilder;
@@ -7,11 +8,17 @@ import io.micronaut.jsonschema.generator.utils.SourceGeneratorConfigBuilder;
 public abstract class JsonSchemaUrlWorkAction extends AbstractJsonSchemaWorkAction<JsonSchemaUrlWorkAction.UrlParameters> {
     protected interface UrlParameters extends AbstractJsonSchemaWorkAction.JsonSchemaParameters {
         Property<String> getJsonURL();
+
+        RegularFileProperty getJsonFile();
     }
 
     @Override
     protected void configureBuilder(SourceGeneratorConfigBuilder builder) {
         var parameters = getParameters();
-        builder.withJsonUrl(parameters.getJsonURL().get());
+        if (parameters.getJsonFile().isPresent()) {
+            builder.withJsonFile(parameters.getJsonFile().get().getAsFile());
+        } else {
+            builder.withJsonUrl(parameters.getJsonURL().get());
+        }
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.jsonschema.tasks;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * A cache of downloaded JSON schemas. Contents are stored by hash, and
+ * each URL is mapped to the hash of its last downloaded content, along
+ * with the ETag and Last-Modified headers of the response, which are
+ * used to revalidate the cached content with conditional requests.
+ * When the build is offline, or when the server cannot be reached, the
+ * cached content is used as is.
+ * <p>
+ * Files are touched each time they are used, and those which haven't
+ * been used for {@value #RETENTION_DAYS} days are deleted by
+ * {@link #cleanup()}.
+ */
+final class SchemaCache {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String URL = "url";
+    private static final String SHA256 = "sha256";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String URLS = "urls";
+    private static final String CONTENT = "content";
+    private static final String CLEANUP_MARKER = "cleanup.marker";
+    private static final long RETENTION_DAYS = 30;
+    private static final Duration CLEANUP_INTERVAL = Duration.ofDays(1);
+
+    private final Path root;
+    private final boolean offline;
+    private final Logger logger;
+    private HttpClient client;
+
+    SchemaCache(Path root, boolean offline, Logger logger) {
+        this.root = root;
+        this.offline = offline;
+        this.logger = logger;
+    }
+
+    /**
+     * Returns the contents of a schema, downloading or revalidating
+     * it if needed.
+     * @param uri the schema URI
+     * @return the contents of the schema
+     * @throws IOException if the schema cannot be read
+     */
+    byte[] fetch(URI uri) throws IOException {
+        Path metadataFile = root.resolve(URLS).resolve(sha256(uri.toString().getBytes(StandardCharsets.UTF_8)) + ".properties");
+        Properties metadata = new Properties();
+        if (Files.isRegularFile(metadataFile)) {
+            try (InputStream in = Files.newInputStream(metadataFile)) {
+                metadata.load(in);
+            }
+        }
+        Path cached = metadata.containsKey(SHA256) ? contentFile(metadata.getProperty(SHA256)) : null;
+        if (cached != null && !Files.isRegularFile(cached)) {
+            cached = null;
+        }
+        if (offline) {
+            if (cached == null) {
+                throw new GradleException("JSON schema " + uri + " isn't available in the cache and the build is offline");
+            }
+            return readCached(metadataFile, cached);
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = send(uri, cached == null ? null : metadata);
+        } catch (IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            logger.warn("Unable to revalidate JSON schema {}, using the cached version: {}", uri, e.getMessage());
+            return readCached(metadataFile, cached);
+        }
+        int status = response.statusCode();
+        if (status == 304 && cached != null) {
+            logger.info("JSON schema {} is up-to-date", uri);
+            return readCached(metadataFile, cached);
+        }
+        if (status < 200 || status >= 300) {
+            throw new GradleException("Unable to download JSON schema " + uri + ": server answered with status " + status);
+        }
+        byte[] body = response.body();
+        String hash = sha256(body);
+        Path content = contentFile(hash);
+        if (Files.isRegularFile(content)) {
+            touch(content);
+        } else {
+            writeAtomically(content, body);
+        }
+        Properties updated = new Properties();
+        updated.setProperty(URL, uri.toString());
+        updated.setProperty(SHA256, hash);
+        response.headers().firstValue("ETag").ifPresent(etag -> updated.setProperty(ETAG, etag));
+        response.headers().firstValue("Last-Modified").ifPresent(lastModified -> updated.setProperty(LAST_MODIFIED, lastModified));
+        Files.createDirectories(metadataFile.getParent());
+        Path temp = Files.createTempFile(metadataFile.getParent(), "url", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            updated.store(out, null);
+        }
+        Files.move(temp, metadataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Downloaded JSON schema {}", uri);
+        return body;
+    }
+
+    /**
+     * Deletes the cached files which haven't been used for
+     * {@value #RETENTION_DAYS} days. This is done at most once a day,
+     * and never when the build is offline, since deleted schemas
+     * couldn't be downloaded again.
+     * @throws IOException if the cache cannot be cleaned up
+     */
+    void cleanup() throws IOException {
+        Path marker = root.resolve(CLEANUP_MARKER);
+        Instant now = Instant.now();
+        if (offline || Files.isRegularFile(marker) && Files.getLastModifiedTime(marker).toInstant().isAfter(now.minus(CLEANUP_INTERVAL))) {
+            return;
+        }
+        Instant threshold = now.minus(Duration.ofDays(RETENTION_DAYS));
+        int deleted = 0;
+        for (String directory : List.of(URLS, CONTENT)) {
+            Path dir = root.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(threshold) && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                }
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} unused files from the JSON schema cache {}", deleted, root);
+        }
+        Files.createDirectories(root);
+        Files.write(marker, new byte[0]);
+    }
+
+    private static byte[] readCached(Path metadataFile, Path cached) throws IOException {
+        touch(metadataFile);
+        touch(cached);
+        return Files.readAllBytes(cached);
+    }
+
+    private static void touch(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+    }
+
+    private HttpResponse<byte[]> send(URI uri, Properties metadata) throws IOException {
+        if (client == null) {
+            client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(TIMEOUT)
+                .build();
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET();
+        if (metadata != null) {
+            if (metadata.containsKey(ETAG)) {
+                request.header("If-None-Match", metadata.getProperty(ETAG));
+            }
+            if (metadata.containsKey(LAST_MODIFIED)) {
+                request.header("If-Modified-Since", metadata.getProperty(LAST_MODIFIED));
+            }
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + uri, e);
+        }
+    }
+
+    private Path contentFile(String hash) {
+        return root.resolve(CONTENT).resolve(hash);
+    }
+
+    private static void writeAtomically(Path file, byte[] contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "content", ".tmp");
+        Files.write(temp, contents);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
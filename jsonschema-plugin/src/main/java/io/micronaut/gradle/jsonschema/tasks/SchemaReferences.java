@@ -0,0 +1,85 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.jsonschema.tasks;
+
+import groovy.json.JsonOutput;
+import groovy.json.JsonSlurper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Visits the references of a JSON schema. Schemas are parsed as JSON,
+ * so that only the {@code $ref} members of schemas are visited: strings
+ * which happen to contain {@code $ref}, and the values of keywords such
+ * as {@code const} or {@code examples}, are left untouched.
+ */
+final class SchemaReferences {
+    private static final String REF = "$ref";
+    // keywords whose values map names to schemas
+    private static final Set<String> NAMED_SCHEMAS = Set.of("properties", "patternProperties", "$defs", "definitions", "dependentSchemas");
+    // keywords whose values are instances, not schemas
+    private static final Set<String> INSTANCES = Set.of("const", "enum", "default", "examples");
+
+    private SchemaReferences() {
+
+    }
+
+    /**
+     * Parses a JSON schema.
+     * @param schema the schema contents
+     * @return the parsed schema
+     */
+    static Object parse(String schema) {
+        return new JsonSlurper().parseText(schema);
+    }
+
+    /**
+     * Serializes a parsed JSON schema.
+     * @param schema the parsed schema
+     * @return the schema contents
+     */
+    static String toJson(Object schema) {
+        return JsonOutput.prettyPrint(JsonOutput.toJson(schema));
+    }
+
+    /**
+     * Visits the references of a parsed schema, replacing each of them
+     * with the result of the visitor.
+     * @param schema the parsed schema
+     * @param visitor the visitor, which returns the new reference
+     */
+    static void visit(Object schema, UnaryOperator<String> visitor) {
+        if (schema instanceof Map<?, ?> map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> members = (Map<String, Object>) map;
+            if (members.get(REF) instanceof String ref) {
+                members.put(REF, visitor.apply(ref));
+            }
+            for (Map.Entry<String, Object> member : members.entrySet()) {
+                if (NAMED_SCHEMAS.contains(member.getKey()) && member.getValue() instanceof Map<?, ?> schemas) {
+                    schemas.values().forEach(value -> visit(value, visitor));
+                } else if (!REF.equals(member.getKey()) && !INSTANCES.contains(member.getKey())) {
+                    visit(member.getValue(), visitor);
+                }
+            }
+        } else if (schema instanceof List<?> list) {
+            list.forEach(value -> visit(value, visitor));
+        }
+    }
+}
@@ -69,6 +69,142 @@ class JsonSchemaGeneratorSpec extends AbstractGradleBuildSpec{
         file("build/generated-sources/jsonschema/generatingSourcesFromAnimal/src/main/java/io/micronaut/jsonschema/Animal.java").exists()
     }
 
+    def "caches URL schemas and can generate them offline"() {
+        given:
+        def mockServer = ClientAndServer.startClientAndServer()
+        def jsonSchema = new File("src/test/resources/animal.schema.json").bytes
+
+        mockServer.when(request().withPath("/animal.schema.json").withHeader("If-None-Match", '"v1"'))
+                .respond(response().withStatusCode(304))
+        mockServer.when(request().withPath("/animal.schema.json"))
+                .respond(response()
+                        .withStatusCode(200)
+                        .withHeader("ETag", '"v1"')
+                        .withContentType(MediaType.JSON_UTF_8)
+                        .withBody(jsonSchema))
+        settingsFile << "rootProject.name = 'jsonschema-url'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.jsonschema"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                jsonschema {
+                    fromUrl("http://localhost:${mockServer.port}/animal.schema.json") {
+                        acceptedUrlPatterns = ["^http://localhost:.*"]
+                    }
+                }
+            }
+
+            $repositoriesBlock
+        """
+
+        when:
+        def result = build('generatingSourcesFromAnimal')
+
+        then:
+        result.task(":downloadJsonSchemaAnimal").outcome == TaskOutcome.SUCCESS
+        result.task(":generatingSourcesFromAnimal").outcome == TaskOutcome.SUCCESS
+        file("build/jsonschema-snapshots/downloadJsonSchemaAnimal/localhost_${mockServer.port}/animal.schema.json").exists()
+
+        when: "the schema is revalidated and didn't change"
+        result = build('generatingSourcesFromAnimal')
+
+        then:
+        result.task(":downloadJsonSchemaAnimal").outcome == TaskOutcome.SUCCESS
+        result.task(":generatingSourcesFromAnimal").outcome == TaskOutcome.UP_TO_DATE
+
+        when: "the server is not reachable"
+        mockServer.stop()
+        result = build('generatingSourcesFromAnimal')
+
+        then: "the cached version is used"
+        result.task(":downloadJsonSchemaAnimal").outcome == TaskOutcome.SUCCESS
+        result.output.contains("Unable to revalidate JSON schema http://localhost:${mockServer.port}/animal.schema.json, using the cached version")
+        result.task(":generatingSourcesFromAnimal").outcome == TaskOutcome.UP_TO_DATE
+
+        when: "the build is offline"
+        result = build('generatingSourcesFromAnimal', '--offline')
+
+        then:
+        result.task(":generatingSourcesFromAnimal").outcome == TaskOutcome.UP_TO_DATE
+        file("build/generated-sources/jsonschema/generatingSourcesFromAnimal/src/main/java/io/micronaut/jsonschema/Animal.java").exists()
+    }
+
+    def "downloads the schemas a URL schema refers to"() {
+        given:
+        def mockServer = ClientAndServer.startClientAndServer()
+        def baseUrl = "http://localhost:${mockServer.port}/schemas"
+        mockServer.when(request().withPath("/schemas/pet.schema.json"))
+                .respond(response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.JSON_UTF_8)
+                        .withBody("""{
+  "\$schema": "https://json-schema.org/draft/2020-12/schema",
+  "title": "Pet",
+  "type": "object",
+  "properties": {
+    "name": { "type": "string" },
+    "owner": { "\$ref": "${baseUrl}/common/owner.schema.json" }
+  }
+}"""))
+        mockServer.when(request().withPath("/schemas/common/owner.schema.json"))
+                .respond(response()
+                        .withStatusCode(200)
+                        .withContentType(MediaType.JSON_UTF_8)
+                        .withBody("""{
+  "\$schema": "https://json-schema.org/draft/2020-12/schema",
+  "title": "Owner",
+  "type": "object",
+  "properties": {
+    "ownerFirstName": { "type": "string" }
+  }
+}"""))
+        settingsFile << "rootProject.name = 'jsonschema-url'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.jsonschema"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                jsonschema {
+                    fromUrl("${baseUrl}/pet.schema.json") {
+                        acceptedUrlPatterns = ["^http://localhost:${mockServer.port}/schemas/.*"]
+                    }
+                }
+            }
+
+            $repositoriesBlock
+        """
+        def snapshot = "build/jsonschema-snapshots/downloadJsonSchemaPet/localhost_${mockServer.port}/schemas"
+        def generated = "build/generated-sources/jsonschema/generatingSourcesFromPet/src/main/java/io/micronaut/jsonschema"
+
+        when:
+        def result = build('generatingSourcesFromPet')
+
+        then: "the referenced schema is downloaded and referenced relatively"
+        result.task(":downloadJsonSchemaPet").outcome == TaskOutcome.SUCCESS
+        file("${snapshot}/common/owner.schema.json").exists()
+        file("${snapshot}/pet.schema.json").text.contains('"$ref": "common/owner.schema.json"')
+
+        and: "sources are generated for both schemas"
+        result.task(":generatingSourcesFromPet").outcome == TaskOutcome.SUCCESS
+        file(generated).listFiles().any { it.text.contains("ownerFirstName") }
+
+        when: "the server is not reachable and sources are generated again"
+        mockServer.stop()
+        result = build('generatingSourcesFromPet', '--rerun-tasks')
+
+        then: "sources are generated from the snapshot"
+        result.task(":downloadJsonSchemaPet").outcome == TaskOutcome.SUCCESS
+        result.task(":generatingSourcesFromPet").outcome == TaskOutcome.SUCCESS
+        file(generated).listFiles().any { it.text.contains("ownerFirstName") }
+    }
+
     def "can generate sources from a local file "() {
         given:
         settingsFile << "rootProject.name = 'jsonschema-url'"
@@ -116,6 +252,54 @@ class JsonSchemaGeneratorSpec extends AbstractGradleBuildSpec{
         file("build/generated/json-schema/generatingSourcesFromAnimal/src/main/java/com/example/animal/Animal.java").exists()
     }
 
+    def "can generate sources from several schemas"() {
+        given:
+        settingsFile << "rootProject.name = 'jsonschema-many'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.jsonschema"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                jsonschema {
+                    ["cat", "dog", "horse"].each { name ->
+                        fromFile(file("\${name}.schema.json")) {
+                            outputPackageName = "com.example.\${name}"
+                        }
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+                annotationProcessor "io.micronaut.serde:micronaut-serde-processor"
+                annotationProcessor "io.micronaut.validation:micronaut-validation-processor"
+
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+                implementation "io.micronaut.validation:micronaut-validation"
+            }
+        """
+        def schema = this.class.getResourceAsStream("/animal.schema.json").getText("UTF-8")
+        ["cat", "dog", "horse"].each { file("${it}.schema.json").text = schema }
+
+        when:
+        def result = build('compileJava')
+
+        then:
+        ["Cat", "Dog", "Horse"].each {
+            assert result.task(":generatingSourcesFrom$it").outcome == TaskOutcome.SUCCESS
+        }
+        result.task(":compileJava").outcome == TaskOutcome.SUCCESS
+
+        and:
+        ["cat", "dog", "horse"].each {
+            assert file("build/generated-sources/jsonschema/generatingSourcesFrom${it.capitalize()}/src/main/java/com/example/$it/Animal.java").exists()
+        }
+    }
+
     @Ignore("This test is broken")
     def "can generate sources from a local directory "() {
         given:
@@ -163,6 +347,117 @@ class JsonSchemaGeneratorSpec extends AbstractGradleBuildSpec{
     }
 
 
+    def "generates sources of a local directory incrementally"() {
+        given:
+        settingsFile << "rootProject.name = 'jsonschema-folder'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.jsonschema"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                jsonschema {
+                    fromFile(file("schemas")) {
+                        outputPackageName = "com.example.pets"
+                    }
+                }
+            }
+
+            $repositoriesBlock
+        """
+        file("schemas/common").mkdirs()
+        file("schemas/common/owner.schema.json").text = objectSchema("Owner", '"ownerName": { "type": "string" }')
+        file("schemas/pet.schema.json").text = objectSchema("Pet", '"name": { "type": "string" }, "owner": { "$ref": "common/owner.schema.json" }')
+        file("schemas/toy.schema.json").text = objectSchema("Toy", '"label": { "type": "string" }, "owner": { "$ref": "common/owner.schema.json" }')
+        def generated = "build/generated-sources/jsonschema/generatingSourcesFromSchemas/src/main/java/com/example/pets"
+
+        when:
+        def result = build('generatingSourcesFromSchemas')
+
+        then:
+        result.task(":generatingSourcesFromSchemas").outcome == TaskOutcome.SUCCESS
+        ["Owner", "Pet", "Toy"].each {
+            assert file("${generated}/${it}.java").exists()
+        }
+
+        when: "a schema which no other schema refers to is edited"
+        def toyTimestamp = file("${generated}/Toy.java").lastModified()
+        file("schemas/pet.schema.json").text = objectSchema("Pet", '"name": { "type": "string" }, "nickname": { "type": "string" }, "owner": { "$ref": "common/owner.schema.json" }')
+        result = build('generatingSourcesFromSchemas', '-i')
+
+        then: "only its sources are generated again"
+        result.task(":generatingSourcesFromSchemas").outcome == TaskOutcome.SUCCESS
+        result.output.contains("Generating sources from 1 changed schemas, deleting sources of 0 removed schemas")
+        file("${generated}/Pet.java").text.contains("nickname")
+        file("${generated}/Toy.java").lastModified() == toyTimestamp
+
+        when: "a schema which other schemas refer to is edited"
+        file("schemas/common/owner.schema.json").text = objectSchema("Owner", '"ownerName": { "type": "string" }, "ownerEmail": { "type": "string" }')
+        result = build('generatingSourcesFromSchemas', '-i')
+
+        then: "the sources of the schemas which refer to it are generated again"
+        result.output.contains("Generating sources from 3 changed schemas, deleting sources of 0 removed schemas")
+        file("${generated}/Owner.java").text.contains("ownerEmail")
+
+        when: "a schema is removed"
+        file("schemas/toy.schema.json").delete()
+        result = build('generatingSourcesFromSchemas', '-i')
+
+        then: "its sources are deleted, but not the types it shares with other schemas"
+        result.output.contains("Generating sources from 0 changed schemas, deleting sources of 1 removed schemas")
+        !file("${generated}/Toy.java").exists()
+        file("${generated}/Owner.java").exists()
+        file("${generated}/Pet.java").exists()
+    }
+
+    def "generates the schemas of a local directory with a single source generator"() {
+        given:
+        settingsFile << "rootProject.name = 'jsonschema-folder'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.jsonschema"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                jsonschema {
+                    fromFile(file("schemas")) {
+                        outputPackageName = "com.example.pets"
+                    }
+                }
+            }
+
+            $repositoriesBlock
+        """
+        file("schemas").mkdirs()
+        ["Cat", "Dog", "Horse"].each {
+            file("schemas/${it.toLowerCase()}.schema.json").text = objectSchema(it, '"name": { "type": "string" }')
+        }
+        def generated = "build/generated-sources/jsonschema/generatingSourcesFromSchemas/src/main/java/com/example/pets"
+
+        when:
+        def result = build('generatingSourcesFromSchemas', '-i')
+
+        then:
+        result.task(":generatingSourcesFromSchemas").outcome == TaskOutcome.SUCCESS
+        result.output.contains("Generated sources from 3 schemas with a single source generator")
+        ["Cat", "Dog", "Horse"].each {
+            assert file("${generated}/${it}.java").exists()
+        }
+    }
+
+    private static String objectSchema(String title, String properties) {
+        """{
+  "\$schema": "https://json-schema.org/draft/2020-12/schema",
+  "title": "$title",
+  "type": "object",
+  "properties": { $properties }
+}"""
+    }
+
     protected void withFile(String name) {
         file(name).text = this.class.getResourceAsStream("/" + name).getText("UTF-8")
     }
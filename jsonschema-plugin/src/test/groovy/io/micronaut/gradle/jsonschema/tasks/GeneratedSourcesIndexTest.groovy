@@ -0,0 +1,44 @@
+package io.micronaut.gradle.jsonschema.tasks
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class GeneratedSourcesIndexTest extends Specification {
+    @TempDir
+    Path tempDir
+
+    def "sources shared with another schema are not orphaned"() {
+        given:
+        def index = new GeneratedSourcesIndex()
+        index.record("head.schema.json", ["src/main/java/Head.java", "src/main/java/Cheatsheet.java"])
+        index.record("types/cheatsheet.schema.json", ["src/main/java/Cheatsheet.java"])
+
+        expect:
+        index.remove("head.schema.json") == ["src/main/java/Head.java"] as Set
+        index.remove("types/cheatsheet.schema.json") == ["src/main/java/Cheatsheet.java"] as Set
+        index.remove("unknown.schema.json").isEmpty()
+    }
+
+    def "can write and load an index"() {
+        given:
+        def file = tempDir.resolve("sources.index")
+        def index = new GeneratedSourcesIndex()
+        index.record("animal.schema.json", ["src/main/java/Animal.java", "src/main/java/Color.java"])
+        index.record("types/plant.schema.json", ["src/main/java/Plant.java"])
+
+        when:
+        index.write(file)
+        def loaded = GeneratedSourcesIndex.load(file)
+
+        then:
+        loaded.getSources("animal.schema.json") == ["src/main/java/Animal.java", "src/main/java/Color.java"] as Set
+        loaded.getSources("types/plant.schema.json") == ["src/main/java/Plant.java"] as Set
+    }
+
+    def "loading a missing index returns an empty index"() {
+        expect:
+        GeneratedSourcesIndex.load(tempDir.resolve("missing.index")).getSources("animal.schema.json").isEmpty()
+    }
+}
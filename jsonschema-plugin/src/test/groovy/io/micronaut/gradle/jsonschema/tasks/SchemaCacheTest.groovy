@@ -0,0 +1,59 @@
+package io.micronaut.gradle.jsonschema.tasks
+
+import org.gradle.api.logging.Logging
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.time.Duration
+import java.time.Instant
+
+class SchemaCacheTest extends Specification {
+    @TempDir
+    Path cacheDir
+
+    def "deletes files which haven't been used recently"() {
+        given:
+        def unused = file("urls/unused.properties", Duration.ofDays(31))
+        def unusedContent = file("content/0123", Duration.ofDays(31))
+        def recent = file("urls/recent.properties", Duration.ofDays(2))
+        def recentContent = file("content/4567", Duration.ofDays(2))
+
+        when:
+        new SchemaCache(cacheDir, false, Logging.getLogger(SchemaCacheTest)).cleanup()
+
+        then:
+        !Files.exists(unused)
+        !Files.exists(unusedContent)
+        Files.exists(recent)
+        Files.exists(recentContent)
+
+        when: "the cache was cleaned up less than a day ago"
+        def other = file("content/89ab", Duration.ofDays(31))
+        new SchemaCache(cacheDir, false, Logging.getLogger(SchemaCacheTest)).cleanup()
+
+        then:
+        Files.exists(other)
+    }
+
+    def "doesn't delete files when offline"() {
+        given:
+        def unused = file("content/0123", Duration.ofDays(31))
+
+        when:
+        new SchemaCache(cacheDir, true, Logging.getLogger(SchemaCacheTest)).cleanup()
+
+        then:
+        Files.exists(unused)
+    }
+
+    private Path file(String path, Duration age) {
+        def file = cacheDir.resolve(path)
+        Files.createDirectories(file.parent)
+        file.text = path
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)))
+        file
+    }
+}
@@ -0,0 +1,49 @@
+package io.micronaut.gradle.jsonschema.tasks
+
+import spock.lang.Specification
+
+class SchemaReferencesTest extends Specification {
+
+    def "only visits the references of schemas"() {
+        given:
+        def schema = SchemaReferences.parse('''
+            {
+              "description": "Not a reference: \\"$ref\\": \\"ignored.json\\"",
+              "properties": {
+                "pet": { "$ref": "pet.json" },
+                "default": { "$ref": "default.json#/$defs/Value" },
+                "$ref": { "type": "string" }
+              },
+              "items": [{ "$ref": "https://example.com/item.json" }],
+              "const": { "$ref": "const.json" },
+              "examples": [{ "$ref": "example.json" }],
+              "$defs": {
+                "Value": { "$ref": "#/$defs/Other" }
+              }
+            }
+        ''')
+        def visited = []
+
+        when:
+        SchemaReferences.visit(schema) { String ref ->
+            visited << ref
+            ref
+        }
+
+        then:
+        visited as Set == ["pet.json", "default.json#/\$defs/Value", "https://example.com/item.json", "#/\$defs/Other"] as Set
+    }
+
+    def "rewrites references"() {
+        given:
+        def schema = SchemaReferences.parse('''{ "items": { "$ref": "https://example.com/item.json#/Item" }, "const": { "$ref": "kept.json" } }''')
+
+        when:
+        SchemaReferences.visit(schema) { String ref -> ref.replace("https://example.com/", "") }
+        def rewritten = SchemaReferences.parse(SchemaReferences.toJson(schema))
+
+        then:
+        rewritten.items['$ref'] == "item.json#/Item"
+        rewritten['const']['$ref'] == "kept.json"
+    }
+}
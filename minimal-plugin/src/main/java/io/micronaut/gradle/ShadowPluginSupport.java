@@ -16,12 +16,12 @@
 package io.micronaut.gradle;
 
 import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import io.micronaut.gradle.internal.ShadowCompat;
 import org.gradle.api.Project;
 import org.gradle.api.file.DuplicatesStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ShadowPluginSupport {
@@ -70,17 +70,9 @@ public class ShadowPluginSupport {
         });
     }
 
-    // This method calls `mergeServiceFiles` reflectively, because the Shadow Plugin v9
-    // introduced a binary breaking change (change in return type)
-    // see https://github.com/GradleUp/shadow/issues/1671
     private static void mergeServiceFiles(ShadowJar jar) {
-        try {
-            var mergeServiceFiles = ShadowJar.class.getDeclaredMethod("mergeServiceFiles");
-            mergeServiceFiles.setAccessible(true);
-            mergeServiceFiles.invoke(jar);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            // fallback to calling the method directly
-            jar.mergeServiceFiles();
-        }
+        // The Shadow Plugin v9 introduced a binary breaking change (change in return type)
+        // see https://github.com/GradleUp/shadow/issues/1671
+        ShadowCompat.get().mergeServiceFiles(jar);
     }
 }
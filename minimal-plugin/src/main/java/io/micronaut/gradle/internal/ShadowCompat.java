@@ -0,0 +1,60 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.internal;
+
+import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.java.archives.Manifest;
+
+/**
+ * Adapter for the Shadow plugin APIs which changed in a binary incompatible
+ * way between Shadow versions (e.g. return types which changed when the plugin
+ * was rewritten in Kotlin, see <a href="https://github.com/GradleUp/shadow/issues/1671">issue</a>).
+ * Each implementation is compiled against the Shadow version it supports, and
+ * the implementation matching the version of Shadow on the build classpath is
+ * selected once per build.
+ * This class must only be loaded when the Shadow plugin is applied.
+ */
+public interface ShadowCompat {
+
+    /**
+     * Configures the shadow jar to merge service files.
+     * @param jar the shadow jar task
+     */
+    void mergeServiceFiles(ShadowJar jar);
+
+    /**
+     * Adds a configuration to the configurations embedded in the shadow jar.
+     * @param jar the shadow jar task
+     * @param configuration the configuration to add
+     */
+    void addConfiguration(ShadowJar jar, Configuration configuration);
+
+    /**
+     * Makes the manifest of the shadow jar inherit from another manifest.
+     * @param jar the shadow jar task
+     * @param manifest the manifest to inherit from
+     */
+    void inheritManifestFrom(ShadowJar jar, Manifest manifest);
+
+    /**
+     * Returns the adapter for the version of Shadow on the build classpath.
+     * @return the adapter
+     */
+    static ShadowCompat get() {
+        return ShadowCompatSelector.INSTANCE;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.internal;
+
+import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import groovy.lang.GroovyObject;
+
+import java.util.ServiceLoader;
+
+/**
+ * Selects the {@link ShadowCompat} implementation once per build.
+ * Shadow 8 is written in Groovy, while Shadow 9 is written in Kotlin,
+ * so the version of the API is deduced from the type hierarchy of the
+ * shadow jar task. The Shadow 8 adapter is compiled in a separate source
+ * set, against the Shadow 8 API, and registered as a service.
+ */
+final class ShadowCompatSelector {
+    static final ShadowCompat INSTANCE = select();
+
+    private ShadowCompatSelector() {
+    }
+
+    private static ShadowCompat select() {
+        if (!GroovyObject.class.isAssignableFrom(ShadowJar.class)) {
+            return new Shadow9Compat();
+        }
+        return ServiceLoader.load(ShadowCompat.class, ShadowCompat.class.getClassLoader())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unsupported version of the Shadow plugin: no adapter found for Shadow 8"));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.internal;
+
+import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.java.archives.Manifest;
+
+/**
+ * The {@link ShadowCompat} implementation for Shadow 8, compiled against
+ * the Shadow 8 API.
+ */
+public final class Shadow8Compat implements ShadowCompat {
+    @Override
+    public void mergeServiceFiles(ShadowJar jar) {
+        jar.mergeServiceFiles();
+    }
+
+    @Override
+    public void addConfiguration(ShadowJar jar, Configuration configuration) {
+        jar.getConfigurations().add(configuration);
+    }
+
+    @Override
+    public void inheritManifestFrom(ShadowJar jar, Manifest manifest) {
+        jar.getManifest().inheritFrom(manifest);
+    }
+}
@@ -0,0 +1,138 @@
+package io.micronaut.openapi.gradle.benchmark
+
+import io.micronaut.openapi.gradle.AbstractOpenApiGeneratorSpec
+import org.gradle.testkit.runner.BuildResult
+import org.gradle.testkit.runner.GradleRunner
+import org.gradle.testkit.runner.TaskOutcome
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Instant
+
+/**
+ * Measures OpenAPI code generation with synthetic definitions. These
+ * specs belong to the benchmark source set and only run with the
+ * openApiBenchmark task. Each scenario appends a line to a CSV file, so that results of
+ * several runs can be compared.
+ */
+class OpenApiGenerationBenchmark extends AbstractOpenApiGeneratorSpec {
+
+    private static final String CSV_HEADER = "timestamp,kind,operations,scenario,outcome,wallTimeMs,peakHeapMb,outputFiles"
+
+    def "benchmark #kind generation with #operations operations"() {
+        given:
+        def definition = new SyntheticDefinition(operations)
+        def apisTask = "generate${kind.capitalize()}OpenApiApis"
+        def modelsTask = "generate${kind.capitalize()}OpenApiModels"
+        settingsFile << "rootProject.name = 'openapi-benchmark'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.library"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                openapi {
+                    ${kind}(file("synthetic.json")) {
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            def recordHeap = tasks.register("recordBenchmarkHeap") {
+                doLast {
+                    long peak = java.lang.management.ManagementFactory.memoryPoolMXBeans
+                        .findAll { it.type == java.lang.management.MemoryType.HEAP }
+                        .sum { it.peakUsage.used } as long
+                    file("build/benchmark-heap.txt").text = String.valueOf(peak)
+                }
+            }
+            tasks.matching { it.name in ["$apisTask", "$modelsTask"] }.configureEach {
+                finalizedBy(recordHeap)
+            }
+            gradle.taskGraph.whenReady {
+                java.lang.management.ManagementFactory.memoryPoolMXBeans
+                    .findAll { it.type == java.lang.management.MemoryType.HEAP }
+                    *.resetPeakUsage()
+            }
+        """
+        file("synthetic.json").text = definition.toJson()
+
+        when:
+        record(kind, operations, "cold", apisTask, run(apisTask, modelsTask))
+
+        and:
+        record(kind, operations, "up-to-date", apisTask, run(apisTask, modelsTask))
+
+        and:
+        record(kind, operations, "warm", apisTask, run(apisTask, "--rerun", modelsTask, "--rerun"))
+
+        and:
+        definition.touchOperation()
+        file("synthetic.json").text = definition.toJson()
+        record(kind, operations, "incremental", apisTask, run(apisTask, modelsTask))
+
+        then:
+        noExceptionThrown()
+
+        where:
+        [kind, operations] << [["server", "client"], sizes()].combinations()
+    }
+
+    @Override
+    GradleRunner configureRunner(String... args) {
+        // benchmarks must run in a separate daemon, which is reused between builds
+        super.configureRunner(args).withDebug(false)
+    }
+
+    private Measurement run(String... tasks) {
+        long start = System.nanoTime()
+        def result = build("--no-build-cache", "--no-configuration-cache", *tasks)
+        new Measurement(result, (System.nanoTime() - start).intdiv(1_000_000))
+    }
+
+    private void record(String kind, int operations, String scenario, String apisTask, Measurement measurement) {
+        def heapFile = file("build/benchmark-heap.txt")
+        long peakHeapMb = heapFile.exists() ? Long.parseLong(heapFile.text).intdiv(1024 * 1024) : -1
+        heapFile.delete()
+        def outcome = measurement.result.task(":$apisTask")?.outcome ?: TaskOutcome.SKIPPED
+        def line = [Instant.now(), kind, operations, scenario, outcome, measurement.wallTimeMs, peakHeapMb, countOutputFiles()].join(",")
+        println "OpenAPI benchmark: $line"
+        def report = reportFile()
+        if (!Files.exists(report)) {
+            Files.createDirectories(report.parent)
+            report.text = CSV_HEADER + "\n"
+        }
+        report << line + "\n"
+    }
+
+    private long countOutputFiles() {
+        def generated = baseDir.resolve("build/generated/openapi")
+        if (!Files.isDirectory(generated)) {
+            return 0
+        }
+        Files.walk(generated).withCloseable { files ->
+            files.filter { Files.isRegularFile(it) }.count()
+        }
+    }
+
+    private static Path reportFile() {
+        Path.of(System.getProperty("benchmark.reportDir", "build/reports/openapi-benchmark"), "results.csv")
+    }
+
+    private static List<Integer> sizes() {
+        System.getProperty("benchmark.sizes", "100,1000,10000").split(",")*.trim()*.toInteger()
+    }
+
+    private static class Measurement {
+        final BuildResult result
+        final long wallTimeMs
+
+        Measurement(BuildResult result, long wallTimeMs) {
+            this.result = result
+            this.wallTimeMs = wallTimeMs
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.micronaut.openapi.gradle.benchmark
+
+import groovy.json.JsonOutput
+
+/**
+ * Generates OpenAPI definitions with an arbitrary number of operations
+ * and models, used to benchmark code generation.
+ */
+class SyntheticDefinition {
+    private static final int OPERATIONS_PER_TAG = 25
+
+    final int operations
+    int revision
+
+    SyntheticDefinition(int operations) {
+        this.operations = operations
+    }
+
+    /**
+     * Changes the description of a single operation, to simulate
+     * an incremental change of the definition.
+     */
+    void touchOperation() {
+        revision++
+    }
+
+    String toJson() {
+        def paths = [:]
+        def schemas = [:]
+        for (int i = 0; i < operations; i++) {
+            paths["/resources$i/{id}".toString()] = [
+                get: [
+                    tags: ["group${i.intdiv(OPERATIONS_PER_TAG)}".toString()],
+                    operationId: "getResource$i".toString(),
+                    summary: i == 0 ? "Gets resource $i (revision $revision)".toString() : "Gets resource $i".toString(),
+                    parameters: [
+                        [name: "id", in: "path", required: true, schema: [type: "integer", format: "int64"]]
+                    ],
+                    responses: [
+                        "200": [
+                            description: "The resource",
+                            content: ["application/json": [schema: ['$ref': "#/components/schemas/Model$i".toString()]]]
+                        ]
+                    ]
+                ]
+            ]
+            def properties = [
+                id: [type: "integer", format: "int64"],
+                name: [type: "string"],
+                tags: [type: "array", items: [type: "string"]]
+            ]
+            if (i > 0) {
+                properties.previous = ['$ref': "#/components/schemas/Model${i - 1}".toString()]
+            }
+            schemas["Model$i".toString()] = [type: "object", required: ["id"], properties: properties]
+        }
+        JsonOutput.prettyPrint(JsonOutput.toJson([
+            openapi: "3.0.3",
+            info: [title: "Synthetic API with $operations operations".toString(), version: "1.0.0"],
+            paths: paths,
+            components: [schemas: schemas]
+        ]))
+    }
+}
@@ -17,6 +17,7 @@ package io.micronaut.gradle.openapi;
 
 import io.micronaut.gradle.PluginsHelper;
 import io.micronaut.gradle.openapi.tasks.AbstractOpenApiGenerator;
+import io.micronaut.gradle.openapi.tasks.DefinitionReferencesService;
 import io.micronaut.gradle.openapi.tasks.OpenApiClientGenerator;
 import io.micronaut.gradle.openapi.tasks.OpenApiServerGenerator;
 import org.gradle.api.Action;
@@ -29,6 +30,7 @@ import org.gradle.api.file.SourceDirectorySet;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.SourceSetContainer;
+import org.gradle.api.tasks.TaskProvider;
 import org.openapitools.codegen.CodegenConstants;
 
 import javax.inject.Inject;
@@ -49,11 +51,13 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
     private final Set<String> names = new HashSet<>();
     private final Project project;
     private final Configuration classpath;
+    private final Provider<DefinitionReferencesService> definitionReferences;
 
     @Inject
     public DefaultOpenApiExtension(Project project, Configuration classpath) {
         this.project = project;
         this.classpath = classpath;
+        this.definitionReferences = project.getGradle().getSharedServices().registerIfAbsent(DefinitionReferencesService.NAME, DefinitionReferencesService.class);
     }
 
     @Override
@@ -81,11 +85,13 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
             serverSpec.getGenerateStreamingFileUpload().convention(false);
 
             spec.execute(serverSpec);
+            var combined = combinedGeneration(serverSpec);
             var controllers = project.getTasks().register(generateApisTaskName(name), OpenApiServerGenerator.class, task -> {
                 configureCommonProperties(name, task, serverSpec, definition);
                 task.setDescription("Generates OpenAPI controllers from an OpenAPI definition");
                 configureServerTask(serverSpec, task);
                 task.getOutputKinds().addAll(CodegenConstants.APIS, CodegenConstants.SUPPORTING_FILES);
+                configureCombinedGeneration(name, task, combined);
                 task.setEnabled(serverSpec.getGenerateApis().get());
             });
             var models = project.getTasks().register(generateModelsTaskName(name), OpenApiServerGenerator.class, task -> {
@@ -93,17 +99,17 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
                 task.setDescription("Generates OpenAPI models from an OpenAPI definition");
                 configureServerTask(serverSpec, task);
                 task.getOutputKinds().add(CodegenConstants.MODELS);
-                task.setEnabled(serverSpec.getGenerateModels().get());
+                task.setEnabled(serverSpec.getGenerateModels().get() && !combined.get());
             });
             withJavaSourceSets(sourceSets -> {
                 var javaMain = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getJava();
                 javaMain.srcDir(serverSpec.getGenerateApis().zip(controllers.flatMap(DefaultOpenApiExtension::mainSrcDir), this::ifEnabled));
-                javaMain.srcDir(serverSpec.getGenerateModels().zip(models.flatMap(DefaultOpenApiExtension::mainSrcDir), this::ifEnabled));
+                javaMain.srcDir(serverSpec.getGenerateModels().zip(modelsSrcDir(combined, controllers, models, "java"), this::ifEnabled));
                 project.getPluginManager().withPlugin("org.jetbrains.kotlin.jvm", unused -> {
                     var ext = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getExtensions().getByName("kotlin");
                     if (ext instanceof SourceDirectorySet kotlinMain) {
                         kotlinMain.srcDir(serverSpec.getGenerateApis().zip(controllers.flatMap(d -> DefaultOpenApiExtension.mainSrcDir(d, "kotlin")), this::ifEnabled));
-                        kotlinMain.srcDir(serverSpec.getGenerateModels().zip(models.flatMap(d -> DefaultOpenApiExtension.mainSrcDir(d, "kotlin")), this::ifEnabled));
+                        kotlinMain.srcDir(serverSpec.getGenerateModels().zip(modelsSrcDir(combined, controllers, models, "kotlin"), this::ifEnabled));
                     }
                 });
             });
@@ -113,6 +119,35 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
 
     }
 
+    /**
+     * APIs and models are generated by the APIs task, with a single parse
+     * of the definition, if combined generation is enabled and both kinds
+     * of sources are generated.
+     */
+    private static Provider<Boolean> combinedGeneration(OpenApiSpec spec) {
+        return spec.getCombinedGeneration()
+            .zip(spec.getGenerateApis(), (combined, apis) -> combined && apis)
+            .zip(spec.getGenerateModels(), (combinedApis, models) -> combinedApis && models);
+    }
+
+    private void configureCombinedGeneration(String name, AbstractOpenApiGenerator<?, ?> task, Provider<Boolean> combined) {
+        if (Boolean.TRUE.equals(combined.get())) {
+            task.getOutputKinds().add(CodegenConstants.MODELS);
+            task.getModelsOutputDirectory().convention(
+                project.getLayout().getBuildDirectory().dir("generated/openapi/" + generateModelsTaskName(name))
+            );
+        }
+    }
+
+    private static Provider<Directory> modelsSrcDir(Provider<Boolean> combined,
+                                                    TaskProvider<? extends AbstractOpenApiGenerator<?, ?>> apis,
+                                                    TaskProvider<? extends AbstractOpenApiGenerator<?, ?>> models,
+                                                    String language) {
+        return combined.flatMap(enabled -> Boolean.TRUE.equals(enabled)
+            ? apis.flatMap(t -> t.getModelsOutputDirectory().dir("src/main/" + language))
+            : models.flatMap(t -> mainSrcDir(t, language)));
+    }
+
     private Directory ifEnabled(boolean enabled, Directory dir) {
         // the ignore part is because of a Gradle limitation, it would throw if the provider for `srcDir`
         // returns null
@@ -159,6 +194,9 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
 
         spec.getGenerateApis().convention(true);
         spec.getGenerateModels().convention(true);
+        spec.getCombinedGeneration().convention(false);
+        spec.getApiShards().convention(1);
+        spec.getShardingStrategy().convention("TAGS");
 
         spec.getCoroutines().convention(false);
         spec.getUseSealed().convention(false);
@@ -201,6 +239,9 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
     private void configureCommonProperties(String name, AbstractOpenApiGenerator<?, ?> task, OpenApiSpec openApiSpec, Provider<RegularFile> definitionFile) {
         task.setGroup(OPENAPI_GROUP);
         task.getClasspath().from(classpath);
+        task.getProcessIsolation().convention(getProcessIsolation());
+        task.getWorkerMaxHeapSize().convention(getWorkerMaxHeapSize());
+        task.getWorkerWorkingDirectory().fileValue(project.getRootDir());
         task.getApiPackageName().convention(openApiSpec.getApiPackageName());
         task.getInvokerPackageName().convention(openApiSpec.getInvokerPackageName());
         task.getModelPackageName().convention(openApiSpec.getModelPackageName());
@@ -212,6 +253,8 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
         task.getUseOptional().convention(openApiSpec.getUseOptional());
         task.getUseReactive().convention(openApiSpec.getUseReactive());
         task.getDefinitionFile().convention(definitionFile);
+        task.getDefinitionReferencesService().convention(definitionReferences);
+        task.usesService(definitionReferences);
         task.getSerializationFramework().convention(openApiSpec.getSerializationFramework());
         task.getAlwaysUseGenerateHttpResponse().convention(openApiSpec.getAlwaysUseGenerateHttpResponse());
         task.getGenerateHttpResponseWhereRequired().convention(openApiSpec.getGenerateHttpResponseWhereRequired());
@@ -276,6 +319,8 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
         task.getJvmRecord().convention(openApiSpec.getJvmRecord());
         task.getJavaCompatibility().convention(openApiSpec.getJavaCompatibility());
         task.getUserParameterMode().convention(openApiSpec.getUserParameterMode());
+        task.getApiShards().convention(openApiSpec.getApiShards());
+        task.getShardingStrategy().convention(openApiSpec.getShardingStrategy());
     }
 
     private void withJavaSourceSets(Consumer<? super SourceSetContainer> consumer) {
@@ -304,11 +349,13 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
             clientSpec.getUseApiKeyAuth().convention(true);
 
             spec.execute(clientSpec);
+            var combined = combinedGeneration(clientSpec);
             var client = project.getTasks().register(generateApisTaskName(name), OpenApiClientGenerator.class, task -> {
                 configureCommonProperties(name, task, clientSpec, definition);
                 task.setDescription("Generates OpenAPI client from an OpenAPI definition");
                 configureClientTask(clientSpec, task);
                 task.getOutputKinds().addAll(CodegenConstants.APIS, CodegenConstants.SUPPORTING_FILES);
+                configureCombinedGeneration(name, task, combined);
                 task.setEnabled(clientSpec.getGenerateApis().get());
             });
             var models = project.getTasks().register(generateModelsTaskName(name), OpenApiClientGenerator.class, task -> {
@@ -316,17 +363,17 @@ public abstract class DefaultOpenApiExtension implements OpenApiExtension {
                 task.setDescription("Generates OpenAPI client models from an OpenAPI definition");
                 configureClientTask(clientSpec, task);
                 task.getOutputKinds().add(CodegenConstants.MODELS);
-                task.setEnabled(clientSpec.getGenerateModels().get());
+                task.setEnabled(clientSpec.getGenerateModels().get() && !combined.get());
             });
             withJavaSourceSets(sourceSets -> {
                 var javaMain = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getJava();
                 javaMain.srcDir(clientSpec.getGenerateApis().zip(client.flatMap(DefaultOpenApiExtension::mainSrcDir), this::ifEnabled));
-                javaMain.srcDir(clientSpec.getGenerateModels().zip(models.flatMap(DefaultOpenApiExtension::mainSrcDir), this::ifEnabled));
+                javaMain.srcDir(clientSpec.getGenerateModels().zip(modelsSrcDir(combined, client, models, "java"), this::ifEnabled));
                 project.getPluginManager().withPlugin("org.jetbrains.kotlin.jvm", unused -> {
                     var ext = sourceSets.getByName(SourceSet.MAIN_SOURCE_SET_NAME).getExtensions().getByName("kotlin");
                     if (ext instanceof SourceDirectorySet kotlinMain) {
                         kotlinMain.srcDir(clientSpec.getGenerateApis().zip(client.flatMap(d -> DefaultOpenApiExtension.mainSrcDir(d, "kotlin")), this::ifEnabled));
-                        kotlinMain.srcDir(clientSpec.getGenerateModels().zip(models.flatMap(d -> DefaultOpenApiExtension.mainSrcDir(d, "kotlin")), this::ifEnabled));
+                        kotlinMain.srcDir(clientSpec.getGenerateModels().zip(modelsSrcDir(combined, client, models, "kotlin"), this::ifEnabled));
                     }
                 });
             });
@@ -49,6 +49,7 @@ public class MicronautOpenAPIPlugin implements Plugin<Project> {
         });
         var openApiExtension = micronautExtension.getExtensions().create(OpenApiExtension.class, "openapi", DefaultOpenApiExtension.class, project, generatorClasspath);
         openApiExtension.getVersion().convention(DefaultVersions.OPENAPI);
+        openApiExtension.getProcessIsolation().convention(false);
         generatorDependencies.getDependencies().addAllLater(openApiExtension.getVersion().map(version ->
             List.of(project.getDependencies().create("io.micronaut.openapi:micronaut-openapi-generator:" + version))
         ));
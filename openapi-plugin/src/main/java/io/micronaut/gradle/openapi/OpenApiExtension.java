@@ -33,6 +33,24 @@ public interface OpenApiExtension {
      */
     Property<String> getVersion();
 
+    /**
+     * Whether code generation runs in a separate worker process, instead of
+     * an isolated classloader of the Gradle daemon. The worker process is
+     * shared by the generation tasks of the build, which run concurrently
+     * within the limit of {@code --max-workers}, and is reused by later builds,
+     * so that the generator and its templates are only loaded once.
+     * Defaults to false.
+     * @return the process isolation property
+     */
+    Property<Boolean> getProcessIsolation();
+
+    /**
+     * The maximum heap size of the worker process, e.g "1g".
+     * Only used when process isolation is enabled.
+     * @return the maximum heap size
+     */
+    Property<String> getWorkerMaxHeapSize();
+
     /**
      * Configures generation of a server, given a definition file.
      * @param file the OpenAPI definition file
@@ -481,6 +481,43 @@ public interface OpenApiSpec {
      */
     Property<Boolean> getGenerateModels();
 
+    /**
+     * Whether API and model source files are generated by a single task,
+     * so that the OpenAPI definition is parsed only once.
+     *
+     * <p>Defaults to {@code false}. This option only applies when both APIs
+     * and models are generated. Generated models are still added to the main
+     * source set from a separate directory, but they are only moved there if
+     * the model package doesn't contain the API or invoker packages.</p>
+     *
+     * @return whether APIs and models are generated by a single task
+     */
+    Property<Boolean> getCombinedGeneration();
+
+    /**
+     * The maximum number of shards APIs are generated in. When greater than
+     * 1, the operations of the definition are partitioned into shards which
+     * are generated in parallel, then merged into the same output directory.
+     *
+     * <p>Defaults to {@code 1}, which disables sharding. Supporting files and
+     * models are only generated once.</p>
+     *
+     * @return the maximum number of shards
+     */
+    Property<Integer> getApiShards();
+
+    /**
+     * How operations are partitioned into shards, when sharding is enabled.
+     *
+     * <p>Defaults to {@code TAGS}, which keeps operations sharing a tag in
+     * the same shard. {@code PATHS} keeps operations sharing the first
+     * segment of their path in the same shard, which is suitable when
+     * APIs aren't grouped by tags.</p>
+     *
+     * @return the sharding strategy
+     */
+    Property<String> getShardingStrategy();
+
     /**
      * Whether Kotlin generation uses coroutines.
      *
@@ -20,30 +20,39 @@ import io.micronaut.gradle.openapi.ResponseBodyMappingModel;
 import org.gradle.api.DefaultTask;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileSystemOperations;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Inject;
 
 public abstract class AbstractOpenApiGenerator<W extends AbstractOpenApiWorkAction<P>, P extends AbstractOpenApiWorkAction.OpenApiParameters> extends DefaultTask {
+    // the output kind of APIs, as defined by the OpenAPI generator
+    private static final String APIS_OUTPUT_KIND = "apis";
 
     @Classpath
     public abstract ConfigurableFileCollection getClasspath();
@@ -52,6 +61,33 @@ public abstract class AbstractOpenApiGenerator<W extends AbstractOpenApiWorkActi
     @PathSensitive(PathSensitivity.NONE)
     public abstract RegularFileProperty getDefinitionFile();
 
+    /**
+     * The local files the definition file refers to, either directly
+     * or transitively, through relative {@code $ref}s. They are resolved
+     * when the task inputs are fingerprinted, so that they are always
+     * in sync with the definition file.
+     *
+     * @return the referenced files
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getReferencedFiles() {
+        return getObjects().fileCollection().from(getDefinitionFile().map(definition -> {
+            File file = definition.getAsFile();
+            DefinitionReferencesService service = getDefinitionReferencesService().getOrNull();
+            return service != null ? service.resolve(file) : new DefinitionReferences().resolve(file);
+        }));
+    }
+
+    /**
+     * The service caching the references of definitions during the build.
+     * If absent, references are scanned each time they are resolved.
+     *
+     * @return the definition references service
+     */
+    @Internal
+    public abstract Property<DefinitionReferencesService> getDefinitionReferencesService();
+
     @Optional
     @Input
     public abstract Property<String> getLang();
@@ -308,15 +344,73 @@ public abstract class AbstractOpenApiGenerator<W extends AbstractOpenApiWorkActi
     @Input
     public abstract Property<String> getUserParameterMode();
 
+    /**
+     * The maximum number of shards APIs are generated in.
+     *
+     * @return the number of shards
+     */
+    @Optional
+    @Input
+    public abstract Property<Integer> getApiShards();
+
+    /**
+     * How operations are partitioned into shards: {@code TAGS}
+     * or {@code PATHS}.
+     *
+     * @return the sharding strategy
+     */
+    @Optional
+    @Input
+    public abstract Property<String> getShardingStrategy();
+
     @OutputDirectory
     public abstract DirectoryProperty getOutputDirectory();
 
+    /**
+     * When set, model sources are generated along with the other
+     * output kinds, then moved to this directory.
+     *
+     * @return the models output directory
+     */
+    @Optional
+    @OutputDirectory
+    public abstract DirectoryProperty getModelsOutputDirectory();
+
+    /**
+     * Whether generation runs in a worker process instead of the
+     * Gradle daemon.
+     *
+     * @return the process isolation property
+     */
+    @Internal
+    public abstract Property<Boolean> getProcessIsolation();
+
+    /**
+     * The maximum heap size of the worker process.
+     *
+     * @return the maximum heap size
+     */
+    @Internal
+    public abstract Property<String> getWorkerMaxHeapSize();
+
+    /**
+     * The working directory of the worker process. It should be the
+     * same for all tasks, so that they can share the worker process.
+     *
+     * @return the working directory
+     */
+    @Internal
+    public abstract DirectoryProperty getWorkerWorkingDirectory();
+
     @Inject
     protected abstract WorkerExecutor getWorkerExecutor();
 
     @Inject
     protected abstract FileSystemOperations getFileSystemOperations();
 
+    @Inject
+    protected abstract ObjectFactory getObjects();
+
     @Internal
     protected abstract Class<W> getWorkerAction();
 
@@ -324,95 +418,166 @@ public abstract class AbstractOpenApiGenerator<W extends AbstractOpenApiWorkActi
 
     @TaskAction
     public final void execute() {
-        recreateOutputDirectory();
-
-        getWorkerExecutor().classLoaderIsolation(spec -> spec.getClasspath().from(getClasspath()))
-            .submit(getWorkerAction(), params -> {
-                params.getLang().set(getLang());
-                params.getApiPackageName().set(getApiPackageName());
-                params.getInvokerPackageName().set(getInvokerPackageName());
-                params.getSerializationFramework().set(getSerializationFramework());
-                params.getModelPackageName().set(getModelPackageName());
-                params.getUseBeanValidation().set(getUseBeanValidation());
-                params.getUseOneOfInterfaces().set(getUseOneOfInterfaces());
-                params.getUseOptional().set(getUseOptional());
-                params.getUseReactive().set(getUseReactive());
-                params.getDefinitionFile().set(getDefinitionFile());
-                params.getOutputDirectory().set(getOutputDirectory());
-                params.getOutputKinds().set(getOutputKinds());
-                params.getAlwaysUseGenerateHttpResponse().set(getAlwaysUseGenerateHttpResponse());
-                params.getGenerateHttpResponseWhereRequired().set(getGenerateHttpResponseWhereRequired());
-                params.getDateTimeFormat().set(getDateTimeFormat());
-                params.getParameterMappings().set(getParameterMappings());
-                params.getResponseBodyMappings().set(getResponseBodyMappings());
-                params.getFluxForArrays().set(getFluxForArrays());
-                params.getGeneratedAnnotation().set(getGeneratedAnnotation());
-                params.getLombok().set(getLombok());
-                params.getNoArgsConstructor().set(getNoArgsConstructor());
-                params.getKsp().set(getKsp());
-
-                params.getSchemaMapping().set(getSchemaMapping());
-                params.getImportMapping().set(getImportMapping());
-                params.getNameMapping().set(getNameMapping());
-                params.getTypeMapping().set(getTypeMapping());
-                params.getEnumNameMapping().set(getEnumNameMapping());
-                params.getModelNameMapping().set(getModelNameMapping());
-                params.getInlineSchemaNameMapping().set(getInlineSchemaNameMapping());
-                params.getInlineSchemaOption().set(getInlineSchemaOption());
-                params.getOpenapiNormalizer().set(getOpenapiNormalizer());
-                params.getApiNamePrefix().set(getApiNamePrefix());
-                params.getApiNameSuffix().set(getApiNameSuffix());
-                params.getModelNamePrefix().set(getModelNamePrefix());
-                params.getModelNameSuffix().set(getModelNameSuffix());
-
-                params.getUseEnumCaseInsensitive().set(getUseEnumCaseInsensitive());
-                params.getGenerateSwaggerAnnotations().set(getGenerateSwaggerAnnotations());
-                params.getImplicitHeaders().set(getImplicitHeaders());
-                params.getImplicitHeadersRegex().set(getImplicitHeadersRegex());
-
-                params.getAdditionalEnumTypeAnnotations().set(getAdditionalEnumTypeAnnotations());
-                params.getAdditionalModelTypeAnnotations().set(getAdditionalModelTypeAnnotations());
-                params.getAdditionalOneOfTypeAnnotations().set(getAdditionalOneOfTypeAnnotations());
-                params.getAdditionalProperties().set(getAdditionalProperties());
-
-                params.getUseJakartaEe().set(getUseJakartaEe());
-                params.getSortParamsByRequiredFlag().set(getSortParamsByRequiredFlag());
-                params.getSkipOperationExample().set(getSkipOperationExample());
-                params.getSkipSortingOperations().set(getSkipSortingOperations());
-                params.getRemoveOperationIdPrefixDelimiter().set(getRemoveOperationIdPrefixDelimiter());
-                params.getRemoveOperationIdPrefixCount().set(getRemoveOperationIdPrefixCount());
-                params.getSortModelPropertiesByRequiredFlag().set(getSortModelPropertiesByRequiredFlag());
-                params.getEnsureUniqueParams().set(getEnsureUniqueParams());
-                params.getAllowUnicodeIdentifiers().set(getAllowUnicodeIdentifiers());
-                params.getPrependFormOrBodyParameters().set(getPrependFormOrBodyParameters());
-
-                params.getCoroutines().set(getCoroutines());
-                params.getUseSealed().set(getUseSealed());
-                params.getJsonIncludeAlwaysForRequiredFields().set(getJsonIncludeAlwaysForRequiredFields());
-                params.getRequiredPropertiesInConstructor().set(getRequiredPropertiesInConstructor());
-                params.getGenerateControllerAsAbstract().set(getGenerateControllerAsAbstract());
-
-                params.getUseUrlConnectionCache().convention(getUseUrlConnectionCache());
-                params.getGenerateEnumConverters().convention(getGenerateEnumConverters());
-                params.getUseTags().convention(getUseTags());
-                params.getGenerateOperationOnlyForFirstTag().convention(getGenerateOperationOnlyForFirstTag());
-
-                params.getJvmOverloads().convention(getJvmOverloads());
-                params.getJvmRecord().convention(getJvmRecord());
-                params.getJavaCompatibility().convention(getJavaCompatibility());
-                params.getUserParameterMode().convention(getUserParameterMode());
-
-                configureWorkerParameters(params);
+        // Sources are generated into a staging directory, then the worker only copies the files
+        // which changed to the output directories, so that unchanged sources keep their timestamps
+        File stagingDirectory = new File(getTemporaryDir(), "staging");
+        recreateDirectory(stagingDirectory);
+
+        WorkQueue workQueue = workQueue();
+        int shards = getApiShards().getOrElse(1);
+        if (shards > 1 && getOutputKinds().get().contains(APIS_OUTPUT_KIND)) {
+            executeSharded(workQueue, stagingDirectory, shards);
+        } else {
+            workQueue.submit(getWorkerAction(), params -> configureParameters(params, stagingDirectory));
+        }
+    }
+
+    private void executeSharded(WorkQueue workQueue, File stagingDirectory, int maxShards) {
+        File shardsDirectory = new File(stagingDirectory, "shards");
+        recreateDirectory(shardsDirectory);
+        workQueue.submit(OpenApiShardingWorkAction.class, params -> {
+            params.getDefinitionFile().set(getDefinitionFile());
+            params.getShards().set(maxShards);
+            params.getStrategy().set(getShardingStrategy().orElse(OpenApiShardingWorkAction.TAGS));
+            params.getGenerateOperationOnlyForFirstTag().set(getGenerateOperationOnlyForFirstTag());
+            params.getShardsDirectory().set(shardsDirectory);
+        });
+        workQueue.await();
+
+        List<Path> outputs = new ArrayList<>();
+        List<Path> models = new ArrayList<>();
+        for (int i = 0; OpenApiShardingWorkAction.shardFile(shardsDirectory, i).exists(); i++) {
+            File shardFile = OpenApiShardingWorkAction.shardFile(shardsDirectory, i);
+            File shardStagingDirectory = new File(stagingDirectory, "shard-" + i);
+            boolean firstShard = i == 0;
+            workQueue.submit(getWorkerAction(), params -> {
+                configureParameters(params, shardStagingDirectory);
+                params.getDefinitionFile().set(shardFile);
+                params.getSynchronizeOutputs().set(false);
+                if (!firstShard) {
+                    // supporting files and models don't depend on operations, so they are only generated once
+                    params.getOutputKinds().set(List.of(APIS_OUTPUT_KIND));
+                }
             });
+            outputs.add(shardStagingDirectory.toPath().resolve("output"));
+            models.add(shardStagingDirectory.toPath().resolve("models"));
+        }
+        getLogger().info("Generating {} in {} shards", getDefinitionFile().get().getAsFile(), outputs.size());
+        workQueue.await();
+
+        Path merged = stagingDirectory.toPath().resolve("merged");
+        ShardOutputs.merge(outputs, merged.resolve("output"));
+        OutputSync.sync(merged.resolve("output"), getOutputDirectory().getAsFile().get().toPath()).log(getLogger());
+        if (getModelsOutputDirectory().isPresent()) {
+            ShardOutputs.merge(models, merged.resolve("models"));
+            OutputSync.sync(merged.resolve("models"), getModelsOutputDirectory().getAsFile().get().toPath()).log(getLogger());
+        }
+        getFileSystemOperations().delete(spec -> spec.delete(stagingDirectory));
+    }
+
+    private void configureParameters(P params, File stagingDirectory) {
+        params.getLang().set(getLang());
+        params.getApiPackageName().set(getApiPackageName());
+        params.getInvokerPackageName().set(getInvokerPackageName());
+        params.getSerializationFramework().set(getSerializationFramework());
+        params.getModelPackageName().set(getModelPackageName());
+        params.getUseBeanValidation().set(getUseBeanValidation());
+        params.getUseOneOfInterfaces().set(getUseOneOfInterfaces());
+        params.getUseOptional().set(getUseOptional());
+        params.getUseReactive().set(getUseReactive());
+        params.getDefinitionFile().set(getDefinitionFile());
+        params.getOutputDirectory().set(getOutputDirectory());
+        params.getModelsOutputDirectory().set(getModelsOutputDirectory());
+        params.getOutputKinds().set(getOutputKinds());
+        params.getAlwaysUseGenerateHttpResponse().set(getAlwaysUseGenerateHttpResponse());
+        params.getGenerateHttpResponseWhereRequired().set(getGenerateHttpResponseWhereRequired());
+        params.getDateTimeFormat().set(getDateTimeFormat());
+        params.getParameterMappings().set(getParameterMappings());
+        params.getResponseBodyMappings().set(getResponseBodyMappings());
+        params.getFluxForArrays().set(getFluxForArrays());
+        params.getGeneratedAnnotation().set(getGeneratedAnnotation());
+        params.getLombok().set(getLombok());
+        params.getNoArgsConstructor().set(getNoArgsConstructor());
+        params.getKsp().set(getKsp());
+
+        params.getSchemaMapping().set(getSchemaMapping());
+        params.getImportMapping().set(getImportMapping());
+        params.getNameMapping().set(getNameMapping());
+        params.getTypeMapping().set(getTypeMapping());
+        params.getEnumNameMapping().set(getEnumNameMapping());
+        params.getModelNameMapping().set(getModelNameMapping());
+        params.getInlineSchemaNameMapping().set(getInlineSchemaNameMapping());
+        params.getInlineSchemaOption().set(getInlineSchemaOption());
+        params.getOpenapiNormalizer().set(getOpenapiNormalizer());
+        params.getApiNamePrefix().set(getApiNamePrefix());
+        params.getApiNameSuffix().set(getApiNameSuffix());
+        params.getModelNamePrefix().set(getModelNamePrefix());
+        params.getModelNameSuffix().set(getModelNameSuffix());
+
+        params.getUseEnumCaseInsensitive().set(getUseEnumCaseInsensitive());
+        params.getGenerateSwaggerAnnotations().set(getGenerateSwaggerAnnotations());
+        params.getImplicitHeaders().set(getImplicitHeaders());
+        params.getImplicitHeadersRegex().set(getImplicitHeadersRegex());
+
+        params.getAdditionalEnumTypeAnnotations().set(getAdditionalEnumTypeAnnotations());
+        params.getAdditionalModelTypeAnnotations().set(getAdditionalModelTypeAnnotations());
+        params.getAdditionalOneOfTypeAnnotations().set(getAdditionalOneOfTypeAnnotations());
+        params.getAdditionalProperties().set(getAdditionalProperties());
+
+        params.getUseJakartaEe().set(getUseJakartaEe());
+        params.getSortParamsByRequiredFlag().set(getSortParamsByRequiredFlag());
+        params.getSkipOperationExample().set(getSkipOperationExample());
+        params.getSkipSortingOperations().set(getSkipSortingOperations());
+        params.getRemoveOperationIdPrefixDelimiter().set(getRemoveOperationIdPrefixDelimiter());
+        params.getRemoveOperationIdPrefixCount().set(getRemoveOperationIdPrefixCount());
+        params.getSortModelPropertiesByRequiredFlag().set(getSortModelPropertiesByRequiredFlag());
+        params.getEnsureUniqueParams().set(getEnsureUniqueParams());
+        params.getAllowUnicodeIdentifiers().set(getAllowUnicodeIdentifiers());
+        params.getPrependFormOrBodyParameters().set(getPrependFormOrBodyParameters());
+
+        params.getCoroutines().set(getCoroutines());
+        params.getUseSealed().set(getUseSealed());
+        params.getJsonIncludeAlwaysForRequiredFields().set(getJsonIncludeAlwaysForRequiredFields());
+        params.getRequiredPropertiesInConstructor().set(getRequiredPropertiesInConstructor());
+        params.getGenerateControllerAsAbstract().set(getGenerateControllerAsAbstract());
+
+        params.getUseUrlConnectionCache().convention(getUseUrlConnectionCache());
+        params.getGenerateEnumConverters().convention(getGenerateEnumConverters());
+        params.getUseTags().convention(getUseTags());
+        params.getGenerateOperationOnlyForFirstTag().convention(getGenerateOperationOnlyForFirstTag());
+
+        params.getJvmOverloads().convention(getJvmOverloads());
+        params.getJvmRecord().convention(getJvmRecord());
+        params.getJavaCompatibility().convention(getJavaCompatibility());
+        params.getUserParameterMode().convention(getUserParameterMode());
+
+        params.getStagingDirectory().set(stagingDirectory);
+        configureWorkerParameters(params);
+    }
+
+    private WorkQueue workQueue() {
+        if (getProcessIsolation().getOrElse(false)) {
+            // Worker processes are reused when they are requested with the same classpath and fork
+            // options, so these must not depend on the task
+            return getWorkerExecutor().processIsolation(spec -> {
+                spec.getClasspath().from(getClasspath());
+                spec.forkOptions(options -> {
+                    options.setWorkingDir(getWorkerWorkingDirectory().get().getAsFile());
+                    if (getWorkerMaxHeapSize().isPresent()) {
+                        options.setMaxHeapSize(getWorkerMaxHeapSize().get());
+                    }
+                });
+            });
+        }
+        return getWorkerExecutor().classLoaderIsolation(spec -> spec.getClasspath().from(getClasspath()));
     }
 
-    private void recreateOutputDirectory() {
-        File outputDirectory = getOutputDirectory().getAsFile().get();
-        getFileSystemOperations().delete(spec -> spec.delete(outputDirectory));
+    private void recreateDirectory(File directory) {
+        getFileSystemOperations().delete(spec -> spec.delete(directory));
         try {
-            Files.createDirectories(outputDirectory.toPath());
+            Files.createDirectories(directory.toPath());
         } catch (IOException e) {
-            throw new UncheckedIOException("Unable to recreate OpenAPI output directory: " + outputDirectory, e);
+            throw new UncheckedIOException("Unable to recreate OpenAPI staging directory: " + directory, e);
         }
     }
 }
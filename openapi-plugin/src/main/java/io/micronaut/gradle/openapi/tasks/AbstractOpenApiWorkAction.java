@@ -25,17 +25,25 @@ import io.micronaut.openapi.generator.ParameterMapping;
 import io.micronaut.openapi.generator.ResponseBodyMapping;
 import io.micronaut.openapi.generator.SerializationLibraryKind;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileSystemOperations;
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.workers.WorkAction;
 import org.gradle.workers.WorkParameters;
 
+import java.util.List;
 import java.util.Locale;
 
+import javax.inject.Inject;
+
 public abstract class AbstractOpenApiWorkAction<T extends AbstractOpenApiWorkAction.OpenApiParameters> implements WorkAction<T> {
 
+    private static final Logger LOGGER = Logging.getLogger(AbstractOpenApiWorkAction.class);
+
     interface OpenApiParameters extends WorkParameters {
 
         Property<String> getLang();
@@ -60,8 +68,14 @@ public abstract class AbstractOpenApiWorkAction<T extends AbstractOpenApiWorkAct
 
         Property<String> getSerializationFramework();
 
+        DirectoryProperty getStagingDirectory();
+
         DirectoryProperty getOutputDirectory();
 
+        DirectoryProperty getModelsOutputDirectory();
+
+        Property<Boolean> getSynchronizeOutputs();
+
         Property<Boolean> getAlwaysUseGenerateHttpResponse();
 
         Property<Boolean> getGenerateHttpResponseWhereRequired();
@@ -171,15 +185,21 @@ public abstract class AbstractOpenApiWorkAction<T extends AbstractOpenApiWorkAct
         Property<String> getUserParameterMode();
     }
 
+    @Inject
+    protected abstract FileSystemOperations getFileSystemOperations();
+
     protected abstract void configureBuilder(MicronautCodeGeneratorBuilder builder);
 
     @Override
     public void execute() {
         var parameters = getParameters();
         var lang = parameters.getLang().get();
+        var stagingDirectory = parameters.getStagingDirectory().get().getAsFile().toPath();
+        var generatedDirectory = stagingDirectory.resolve("output");
+        var modelsDirectory = stagingDirectory.resolve("models");
         var builder = MicronautCodeGeneratorEntryPoint.builder()
             .withDefinitionFile(parameters.getDefinitionFile().get().getAsFile().toURI())
-            .withOutputDirectory(parameters.getOutputDirectory().getAsFile().get())
+            .withOutputDirectory(generatedDirectory.toFile())
             .withOutputs(
                 parameters.getOutputKinds().get()
                     .stream()
@@ -268,5 +288,27 @@ public abstract class AbstractOpenApiWorkAction<T extends AbstractOpenApiWorkAct
 
         configureBuilder(builder);
         builder.build().generate();
+        if (parameters.getModelsOutputDirectory().isPresent()) {
+            String modelPackage = parameters.getModelPackageName().getOrNull();
+            if (modelPackage == null) {
+                LOGGER.warn("Generated models are kept with the other generated sources because no model package is configured");
+            } else if (!ModelSources.relocate(
+                generatedDirectory,
+                modelsDirectory,
+                modelPackage,
+                List.of(parameters.getApiPackageName().getOrElse(""), parameters.getInvokerPackageName().getOrElse(""))
+            )) {
+                LOGGER.warn("Generated models were not moved to a separate directory because the model package contains other generated packages");
+            }
+        }
+        if (!parameters.getSynchronizeOutputs().getOrElse(true)) {
+            // sharded generation: outputs of all shards are merged by the task
+            return;
+        }
+        if (parameters.getModelsOutputDirectory().isPresent()) {
+            OutputSync.sync(modelsDirectory, parameters.getModelsOutputDirectory().getAsFile().get().toPath()).log(LOGGER);
+        }
+        OutputSync.sync(generatedDirectory, parameters.getOutputDirectory().getAsFile().get().toPath()).log(LOGGER);
+        getFileSystemOperations().delete(spec -> spec.delete(stagingDirectory.toFile()));
     }
 }
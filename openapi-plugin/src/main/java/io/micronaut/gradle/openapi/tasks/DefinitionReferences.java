@@ -0,0 +1,120 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the local files an OpenAPI definition refers to, either
+ * directly or transitively, through relative {@code $ref}s. Both JSON
+ * and YAML definitions are supported: references are found by scanning
+ * the files instead of parsing them, which is enough to find the files
+ * to track as inputs. Remote references are ignored.
+ * <p>
+ * The references of each file are cached, along with the size and last
+ * modification time of the file, so that unchanged files aren't scanned
+ * again by the same instance. Generation tasks share an instance through
+ * {@link DefinitionReferencesService}, which is discarded at the end of
+ * the build.
+ */
+final class DefinitionReferences {
+    private static final Pattern REF = Pattern.compile("[\"']?\\$ref[\"']?\\s*:\\s*[\"']?([^\"'\\s,}#]*)");
+    private final Map<Path, CachedReferences> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the files referenced by the definition, excluding the
+     * definition itself.
+     * @param definition the definition file
+     * @return the referenced files
+     */
+    Set<File> resolve(File definition) {
+        Path root = definition.toPath().toAbsolutePath().normalize();
+        Set<Path> visited = new LinkedHashSet<>();
+        Deque<Path> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Path file = queue.poll();
+            if (Files.isRegularFile(file) && visited.add(file)) {
+                queue.addAll(referencesOf(file));
+            }
+        }
+        visited.remove(root);
+        Set<File> files = new LinkedHashSet<>();
+        for (Path path : visited) {
+            files.add(path.toFile());
+        }
+        return files;
+    }
+
+    private List<Path> referencesOf(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            CachedReferences cached = cache.get(file);
+            if (cached == null || cached.size != size || cached.lastModified != lastModified) {
+                cached = new CachedReferences(size, lastModified, scan(file));
+                cache.put(file, cached);
+            }
+            return cached.references;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read OpenAPI definition " + file, e);
+        }
+    }
+
+    static List<Path> scan(Path file) throws IOException {
+        String contents = Files.readString(file, StandardCharsets.UTF_8);
+        Set<Path> references = new LinkedHashSet<>();
+        Matcher matcher = REF.matcher(contents);
+        while (matcher.find()) {
+            String ref = matcher.group(1);
+            if (ref.isEmpty() || ref.contains(":")) {
+                // local or remote reference
+                continue;
+            }
+            references.add(resolveReference(file, ref));
+        }
+        return List.copyOf(references);
+    }
+
+    private static Path resolveReference(Path file, String ref) {
+        try {
+            return Path.of(file.toUri().resolve(URI.create(ref))).normalize();
+        } catch (IllegalArgumentException e) {
+            // not a valid URI, e.g. because of unescaped characters
+            return file.resolveSibling(ref).normalize();
+        }
+    }
+
+    private record CachedReferences(long size, long lastModified, List<Path> references) {
+    }
+}
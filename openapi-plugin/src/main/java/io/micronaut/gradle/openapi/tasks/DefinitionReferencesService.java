@@ -0,0 +1,37 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * A build service which caches the references of OpenAPI definitions
+ * for the duration of a build, so that definitions shared by several
+ * generation tasks are only scanned once.
+ */
+public abstract class DefinitionReferencesService implements BuildService<BuildServiceParameters.None> {
+    public static final String NAME = "micronautOpenApiDefinitionReferences";
+
+    private final DefinitionReferences references = new DefinitionReferences();
+
+    Set<File> resolve(File definition) {
+        return references.resolve(definition);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves generated model sources to a separate directory, when APIs
+ * and models are generated in a single pass.
+ */
+final class ModelSources {
+    private static final List<String> LANGUAGES = List.of("java", "kotlin");
+
+    private ModelSources() {
+
+    }
+
+    /**
+     * Moves the sources of the model package.
+     * @param outputDirectory the generator output directory
+     * @param modelsDirectory the directory where to move model sources
+     * @param modelPackage the model package, not null
+     * @param otherPackages the other generated packages
+     * @return true if sources were moved, false if the model package contains other packages
+     */
+    static boolean relocate(Path outputDirectory, Path modelsDirectory, String modelPackage, Collection<String> otherPackages) {
+        if (otherPackages.stream().anyMatch(p -> p != null && (p.equals(modelPackage) || p.startsWith(modelPackage + ".")))) {
+            return false;
+        }
+        String packagePath = modelPackage.replace('.', '/');
+        try {
+            for (String language : LANGUAGES) {
+                Path sourceRoot = Path.of("src", "main", language);
+                Path source = outputDirectory.resolve(sourceRoot).resolve(packagePath);
+                if (Files.isDirectory(source)) {
+                    move(source, modelsDirectory.resolve(sourceRoot).resolve(packagePath));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to move generated models to " + modelsDirectory, e);
+        }
+        return true;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            Path destination = target.resolve(source.relativize(file).toString());
+            Files.createDirectories(destination.getParent());
+            Files.move(file, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (Stream<Path> walk = Files.walk(source)) {
+            for (Path dir : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+}
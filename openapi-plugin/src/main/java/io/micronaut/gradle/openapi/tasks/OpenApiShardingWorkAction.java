@@ -0,0 +1,268 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Splits an OpenAPI definition into several definitions, which only
+ * differ by the operations they contain, so that APIs can be generated
+ * in parallel. The definitions are written as self-contained JSON files,
+ * with external references resolved once for the whole definition, so
+ * that the models they are resolved to have the same names in all shards
+ * and in the models task. Except for the first one, which may generate
+ * models, shards only keep the components their operations reach.
+ */
+public abstract class OpenApiShardingWorkAction implements WorkAction<OpenApiShardingWorkAction.ShardingParameters> {
+
+    static final String TAGS = "TAGS";
+    static final String PATHS = "PATHS";
+
+    private static final List<String> METHODS = List.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+    private static final String DEFAULT_KEY = "default";
+    private static final String COMPONENTS = "components";
+    private static final String COMPONENTS_PREFIX = "#/components/";
+    private static final String SECURITY_SCHEMES = "securitySchemes";
+    private static final String REF = "$ref";
+    private static final String MAPPING = "mapping";
+
+    interface ShardingParameters extends WorkParameters {
+
+        RegularFileProperty getDefinitionFile();
+
+        Property<Integer> getShards();
+
+        Property<String> getStrategy();
+
+        Property<Boolean> getGenerateOperationOnlyForFirstTag();
+
+        DirectoryProperty getShardsDirectory();
+    }
+
+    /**
+     * Returns the file of a shard definition.
+     * @param shardsDirectory the shards directory
+     * @param shard the shard index
+     * @return the shard definition file
+     */
+    static File shardFile(File shardsDirectory, int shard) {
+        return new File(shardsDirectory, "shard-" + shard + ".json");
+    }
+
+    @Override
+    public void execute() {
+        var parameters = getParameters();
+        var definitionFile = parameters.getDefinitionFile().get().getAsFile();
+        var options = new ParseOptions();
+        options.setResolve(true);
+        var result = new OpenAPIParser().readLocation(definitionFile.toURI().toString(), null, options);
+        OpenAPI openAPI = result.getOpenAPI();
+        if (openAPI == null) {
+            throw new IllegalStateException("Unable to parse OpenAPI definition " + definitionFile + ": " + result.getMessages());
+        }
+        ObjectMapper mapper = SpecVersion.V31.equals(openAPI.getSpecVersion()) ? Json31.mapper() : Json.mapper();
+        ObjectNode definition = mapper.valueToTree(openAPI);
+        JsonNode paths = definition.path("paths");
+
+        boolean byPaths = PATHS.equals(parameters.getStrategy().get().toUpperCase(Locale.ENGLISH));
+        boolean onlyFirstTag = parameters.getGenerateOperationOnlyForFirstTag().getOrElse(true);
+        var planner = new ShardPlanner();
+        forEachOperation(paths, (path, operation) -> planner.addOperation(keysOf(path, operation, byPaths, onlyFirstTag)));
+        int shards = planner.plan(parameters.getShards().get());
+
+        // shards share the nodes of the definition instead of copying them, since they are only written
+        List<ObjectNode> shardPaths = new ArrayList<>(shards);
+        List<ObjectNode> shardDefinitions = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            ObjectNode shardDefinition = mapper.createObjectNode();
+            shardDefinition.setAll(definition);
+            shardPaths.add(shardDefinition.putObject("paths"));
+            shardDefinitions.add(shardDefinition);
+        }
+        Iterator<Map.Entry<String, JsonNode>> pathItems = paths.fields();
+        while (pathItems.hasNext()) {
+            Map.Entry<String, JsonNode> pathItem = pathItems.next();
+            for (int i = 0; i < shards; i++) {
+                ObjectNode shardPathItem = mapper.createObjectNode();
+                boolean hasOperations = false;
+                Iterator<Map.Entry<String, JsonNode>> fields = pathItem.getValue().fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (!METHODS.contains(field.getKey())) {
+                        shardPathItem.set(field.getKey(), field.getValue());
+                    } else if (planner.shardOf(keysOf(pathItem.getKey(), field.getValue(), byPaths, onlyFirstTag)) == i) {
+                        shardPathItem.set(field.getKey(), field.getValue());
+                        hasOperations = true;
+                    }
+                }
+                if (hasOperations) {
+                    shardPaths.get(i).set(pathItem.getKey(), shardPathItem);
+                }
+            }
+        }
+        JsonNode components = definition.get(COMPONENTS);
+        if (components != null) {
+            // the first shard may generate models, the other ones only need the components their operations reach
+            for (int i = 1; i < shards; i++) {
+                shardDefinitions.get(i).set(COMPONENTS, reachableComponents(mapper, components, shardDefinitions.get(i)));
+            }
+        }
+        File shardsDirectory = parameters.getShardsDirectory().get().getAsFile();
+        try {
+            for (int i = 0; i < shards; i++) {
+                mapper.writerWithDefaultPrettyPrinter().writeValue(shardFile(shardsDirectory, i), shardDefinitions.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write OpenAPI shard definitions to " + shardsDirectory, e);
+        }
+    }
+
+    /**
+     * Returns the components which are reachable from the rest of the
+     * shard definition, either directly or through other components.
+     * Security schemes are referenced by name instead of {@code $ref}s,
+     * so they are always kept.
+     */
+    private static ObjectNode reachableComponents(ObjectMapper mapper, JsonNode components, JsonNode shardDefinition) {
+        ObjectNode reachable = mapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> sections = components.fields();
+        while (sections.hasNext()) {
+            Map.Entry<String, JsonNode> section = sections.next();
+            if (SECURITY_SCHEMES.equals(section.getKey()) || !section.getValue().isObject()) {
+                reachable.set(section.getKey(), section.getValue());
+            }
+        }
+        Deque<JsonNode> queue = new ArrayDeque<>();
+        Iterator<Map.Entry<String, JsonNode>> roots = shardDefinition.fields();
+        while (roots.hasNext()) {
+            Map.Entry<String, JsonNode> root = roots.next();
+            if (!COMPONENTS.equals(root.getKey())) {
+                queue.add(root.getValue());
+            }
+        }
+        while (!queue.isEmpty()) {
+            JsonNode node = queue.poll();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (REF.equals(field.getKey()) && value.isTextual()) {
+                    queueComponent(components, reachable, value.asText(), queue);
+                } else if (value.isContainerNode()) {
+                    if (MAPPING.equals(field.getKey())) {
+                        // discriminator mappings refer to schemas without $ref
+                        for (JsonNode target : value) {
+                            if (target.isTextual()) {
+                                queueComponent(components, reachable, target.asText(), queue);
+                            }
+                        }
+                    }
+                    queue.add(value);
+                }
+            }
+            if (node.isArray()) {
+                node.forEach(queue::add);
+            }
+        }
+        return reachable;
+    }
+
+    private static void queueComponent(JsonNode components, ObjectNode reachable, String ref, Deque<JsonNode> queue) {
+        if (!ref.startsWith(COMPONENTS_PREFIX)) {
+            return;
+        }
+        String[] segments = ref.substring(COMPONENTS_PREFIX.length()).split("/", 2);
+        if (segments.length != 2) {
+            return;
+        }
+        String name = URLDecoder.decode(segments[1], StandardCharsets.UTF_8).replace("~1", "/").replace("~0", "~");
+        JsonNode component = components.path(segments[0]).get(name);
+        if (component == null) {
+            return;
+        }
+        JsonNode section = reachable.get(segments[0]);
+        if (section == null) {
+            section = reachable.putObject(segments[0]);
+        }
+        if (!section.has(name)) {
+            ((ObjectNode) section).set(name, component);
+            queue.add(component);
+        }
+    }
+
+    private static void forEachOperation(JsonNode paths, OperationConsumer consumer) {
+        Iterator<Map.Entry<String, JsonNode>> pathItems = paths.fields();
+        while (pathItems.hasNext()) {
+            Map.Entry<String, JsonNode> pathItem = pathItems.next();
+            for (String method : METHODS) {
+                JsonNode operation = pathItem.getValue().get(method);
+                if (operation != null) {
+                    consumer.accept(pathItem.getKey(), operation);
+                }
+            }
+        }
+    }
+
+    private static List<String> keysOf(String path, JsonNode operation, boolean byPaths, boolean onlyFirstTag) {
+        if (byPaths) {
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    return List.of(segment);
+                }
+            }
+            return List.of(DEFAULT_KEY);
+        }
+        List<String> tags = new ArrayList<>();
+        for (JsonNode tag : operation.path("tags")) {
+            tags.add(tag.asText());
+            if (onlyFirstTag) {
+                break;
+            }
+        }
+        return tags.isEmpty() ? List.of(DEFAULT_KEY) : tags;
+    }
+
+    @FunctionalInterface
+    private interface OperationConsumer {
+        void accept(String path, JsonNode operation);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import org.gradle.api.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Synchronizes generated sources from a staging directory into an
+ * output directory. Files which didn't change are left untouched, so
+ * that they keep their timestamps and downstream tasks, like compile
+ * tasks, only see the files which actually changed.
+ */
+final class OutputSync {
+    private final Path output;
+    private int written;
+    private int unchanged;
+    private int deleted;
+
+    private OutputSync(Path output) {
+        this.output = output;
+    }
+
+    /**
+     * Synchronizes the output directory with the staging directory.
+     * @param staging the staging directory
+     * @param output the output directory
+     * @return the result of the synchronization
+     */
+    static OutputSync sync(Path staging, Path output) {
+        var sync = new OutputSync(output);
+        try {
+            sync.doSync(staging, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to synchronize generated sources into " + output, e);
+        }
+        return sync;
+    }
+
+    void log(Logger logger) {
+        logger.info("Synchronized {}: {} files written, {} unchanged, {} deleted", output, written, unchanged, deleted);
+    }
+
+    int getWritten() {
+        return written;
+    }
+
+    int getUnchanged() {
+        return unchanged;
+    }
+
+    int getDeleted() {
+        return deleted;
+    }
+
+    private void doSync(Path staging, Path output) throws IOException {
+        Files.createDirectories(output);
+        Set<Path> generated = new HashSet<>();
+        if (Files.isDirectory(staging)) {
+            for (Path file : regularFiles(staging)) {
+                Path relativePath = staging.relativize(file);
+                generated.add(relativePath);
+                Path target = output.resolve(relativePath.toString());
+                if (Files.isRegularFile(target) && sameContents(file, target)) {
+                    unchanged++;
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    written++;
+                }
+            }
+        }
+        for (Path file : regularFiles(output)) {
+            if (!generated.contains(output.relativize(file))) {
+                Files.delete(file);
+                deleted++;
+            }
+        }
+        deleteEmptyDirectories(output);
+    }
+
+    private static boolean sameContents(Path a, Path b) throws IOException {
+        return Files.size(a) == Files.size(b) && Arrays.equals(Files.readAllBytes(a), Files.readAllBytes(b));
+    }
+
+    private static List<Path> regularFiles(Path directory) throws IOException {
+        try (Stream<Path> walk = Files.walk(directory)) {
+            return walk.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static void deleteEmptyDirectories(Path root) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> walk = Files.walk(root)) {
+            directories = walk.filter(Files::isDirectory)
+                .filter(dir -> !dir.equals(root))
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        }
+        for (Path directory : directories) {
+            try (Stream<Path> children = Files.list(directory)) {
+                if (children.findAny().isEmpty()) {
+                    Files.delete(directory);
+                }
+            }
+        }
+    }
+}
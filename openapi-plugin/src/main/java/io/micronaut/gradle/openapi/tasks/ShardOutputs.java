@@ -0,0 +1,72 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import org.gradle.api.GradleException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Merges the sources generated by the shards of a definition. Files
+ * generated by several shards, like supporting files, must be identical.
+ */
+final class ShardOutputs {
+    private ShardOutputs() {
+
+    }
+
+    /**
+     * Merges the shard directories into a single directory.
+     * @param shardDirectories the shard directories
+     * @param target the target directory
+     */
+    static void merge(List<Path> shardDirectories, Path target) {
+        try {
+            Files.createDirectories(target);
+            for (Path shardDirectory : shardDirectories) {
+                if (!Files.isDirectory(shardDirectory)) {
+                    continue;
+                }
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(shardDirectory)) {
+                    files = walk.filter(Files::isRegularFile).toList();
+                }
+                for (Path file : files) {
+                    Path relativePath = shardDirectory.relativize(file);
+                    Path destination = target.resolve(relativePath.toString());
+                    if (Files.exists(destination)) {
+                        if (!Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(destination))) {
+                            throw new GradleException("Sharded OpenAPI generation produced conflicting versions of " + relativePath
+                                + ", which means that an API is split across shards. The sharding strategy must match how operations are grouped into APIs:"
+                                + " use the TAGS strategy when useTags is enabled and the PATHS strategy when it is disabled, or disable sharding.");
+                        }
+                    } else {
+                        Files.createDirectories(destination.getParent());
+                        Files.copy(file, destination);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to merge generated OpenAPI sources into " + target, e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.openapi.tasks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Partitions the operations of an OpenAPI definition into shards
+ * which can be generated independently. Each operation is identified
+ * by its grouping keys (e.g. its tags): keys which are used together
+ * by an operation always end up in the same shard, so that a generated
+ * API class is never split across shards. Groups of keys are then
+ * distributed so that shards have a similar number of operations.
+ */
+final class ShardPlanner {
+    private final Map<String, String> parents = new HashMap<>();
+    private final List<String> operations = new ArrayList<>();
+    private Map<String, Integer> shardsByGroup;
+    private int shardCount;
+
+    /**
+     * Registers an operation.
+     * @param keys the grouping keys of the operation, must not be empty
+     */
+    void addOperation(List<String> keys) {
+        String first = keys.get(0);
+        for (String key : keys) {
+            union(first, key);
+        }
+        operations.add(first);
+        shardsByGroup = null;
+    }
+
+    /**
+     * Distributes the registered operations into at most the
+     * requested number of shards.
+     * @param maxShards the maximum number of shards
+     * @return the actual number of shards
+     */
+    int plan(int maxShards) {
+        Map<String, Integer> weights = new TreeMap<>();
+        for (String operation : operations) {
+            weights.merge(find(operation), 1, Integer::sum);
+        }
+        List<Map.Entry<String, Integer>> groups = new ArrayList<>(weights.entrySet());
+        groups.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        shardCount = Math.max(1, Math.min(maxShards, groups.size()));
+        int[] loads = new int[shardCount];
+        shardsByGroup = new HashMap<>();
+        for (Map.Entry<String, Integer> group : groups) {
+            int shard = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += group.getValue();
+            shardsByGroup.put(group.getKey(), shard);
+        }
+        return shardCount;
+    }
+
+    /**
+     * Returns the shard of an operation.
+     * @param keys the grouping keys of a registered operation
+     * @return the shard index
+     */
+    int shardOf(List<String> keys) {
+        if (shardsByGroup == null) {
+            throw new IllegalStateException("Operations must be planned before querying shards");
+        }
+        return shardsByGroup.get(find(keys.get(0)));
+    }
+
+    private String find(String key) {
+        String parent = parents.computeIfAbsent(key, k -> k);
+        if (parent.equals(key)) {
+            return key;
+        }
+        String root = find(parent);
+        parents.put(key, root);
+        return root;
+    }
+
+    private void union(String a, String b) {
+        String rootA = find(a);
+        String rootB = find(b);
+        if (!rootA.equals(rootB)) {
+            // keep the smallest key as the root, so that plans don't depend on the operations order
+            if (rootA.compareTo(rootB) < 0) {
+                parents.put(rootB, rootA);
+            } else {
+                parents.put(rootA, rootB);
+            }
+        }
+    }
+}
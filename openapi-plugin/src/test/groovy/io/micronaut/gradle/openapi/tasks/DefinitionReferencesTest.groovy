@@ -0,0 +1,74 @@
+package io.micronaut.gradle.openapi.tasks
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class DefinitionReferencesTest extends Specification {
+    @TempDir
+    Path tmpDir
+
+    DefinitionReferences references = new DefinitionReferences()
+
+    def "resolves the transitive closure of local references"() {
+        def definition = write("api/openapi.yaml", """
+            paths:
+              /pets:
+                \$ref: 'paths/pets.yaml'
+            components:
+              schemas:
+                Local:
+                  \$ref: '#/components/schemas/Other'
+                Remote:
+                  \$ref: 'https://example.com/schemas.yaml#/Remote'
+        """)
+        def pets = write("api/paths/pets.yaml", """
+            get:
+              responses:
+                '200':
+                  schema:
+                    \$ref: "../schemas/pet.json#/Pet"
+        """)
+        def pet = write("api/schemas/pet.json", """
+            { "Pet": { "properties": { "owner": { "\$ref": "owner.json" }, "self": { "\$ref": "#/Pet" } } } }
+        """)
+        def owner = write("api/schemas/owner.json", """
+            { "properties": { "pets": { "\$ref": "pet.json#/Pet" } } }
+        """)
+        write("api/schemas/unused.json", "{}")
+
+        expect:
+        references.resolve(definition.toFile()) == [pets, pet, owner].collect { it.toFile() } as Set
+    }
+
+    def "ignores missing references"() {
+        def definition = write("openapi.json", """{ "\$ref": "missing.json" }""")
+
+        expect:
+        references.resolve(definition.toFile()).isEmpty()
+    }
+
+    def "rescans files which changed"() {
+        def definition = write("openapi.yaml", "openapi: 3.0.0")
+        def common = write("common.yaml", "{}")
+
+        expect:
+        references.resolve(definition.toFile()).isEmpty()
+
+        when:
+        definition.text = "\$ref: common.yaml"
+        definition.toFile().setLastModified(definition.toFile().lastModified() + 2000)
+
+        then:
+        references.resolve(definition.toFile()) == [common.toFile()] as Set
+    }
+
+    private Path write(String path, String contents) {
+        def file = tmpDir.resolve(path).toAbsolutePath().normalize()
+        Files.createDirectories(file.parent)
+        file.text = contents.stripIndent()
+        file
+    }
+}
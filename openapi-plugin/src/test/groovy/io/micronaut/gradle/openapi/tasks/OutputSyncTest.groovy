@@ -0,0 +1,58 @@
+package io.micronaut.gradle.openapi.tasks
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class OutputSyncTest extends Specification {
+    @TempDir
+    Path tmpDir
+
+    def "only copies files which changed and removes stale files"() {
+        def staging = tmpDir.resolve("staging")
+        def output = tmpDir.resolve("output")
+        write(staging, "model/Same.java", "class Same {}")
+        write(staging, "model/Changed.java", "class Changed { int a; }")
+        write(staging, "model/New.java", "class New {}")
+        def same = write(output, "model/Same.java", "class Same {}")
+        def changed = write(output, "model/Changed.java", "class Changed {}")
+        def stale = write(output, "stale/Stale.java", "class Stale {}")
+        long timestamp = same.toFile().lastModified() - 60_000
+        same.toFile().setLastModified(timestamp)
+
+        when:
+        def sync = OutputSync.sync(staging, output)
+
+        then:
+        sync.written == 2
+        sync.unchanged == 1
+        sync.deleted == 1
+        same.toFile().lastModified() == timestamp
+        changed.text == "class Changed { int a; }"
+        output.resolve("model/New.java").text == "class New {}"
+        !Files.exists(stale)
+        !Files.exists(stale.parent)
+        Files.isDirectory(output)
+    }
+
+    def "creates the output directory when nothing is generated"() {
+        def output = tmpDir.resolve("output")
+
+        when:
+        def sync = OutputSync.sync(tmpDir.resolve("missing"), output)
+
+        then:
+        sync.written == 0
+        sync.deleted == 0
+        Files.isDirectory(output)
+    }
+
+    private static Path write(Path root, String path, String contents) {
+        def file = root.resolve(path)
+        Files.createDirectories(file.parent)
+        file.text = contents
+        file
+    }
+}
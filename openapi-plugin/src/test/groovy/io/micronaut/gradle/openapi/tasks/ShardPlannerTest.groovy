@@ -0,0 +1,50 @@
+package io.micronaut.gradle.openapi.tasks
+
+import spock.lang.Specification
+
+class ShardPlannerTest extends Specification {
+
+    def "balances groups of operations between shards"() {
+        def planner = new ShardPlanner()
+        8.times { planner.addOperation(["pet"]) }
+        4.times { planner.addOperation(["store"]) }
+        5.times { planner.addOperation(["user"]) }
+        planner.addOperation(["order"])
+
+        when:
+        int shards = planner.plan(2)
+
+        then:
+        shards == 2
+        planner.shardOf(["pet"]) == 0
+        planner.shardOf(["user"]) == 1
+        planner.shardOf(["store"]) == 1
+        planner.shardOf(["order"]) == 0
+    }
+
+    def "keeps keys used by the same operation in the same shard"() {
+        def planner = new ShardPlanner()
+        planner.addOperation(["a"])
+        planner.addOperation(["b"])
+        planner.addOperation(["c", "a"])
+        planner.addOperation(["d"])
+
+        when:
+        planner.plan(4)
+
+        then:
+        planner.shardOf(["a"]) == planner.shardOf(["c"])
+        planner.shardOf(["c", "a"]) == planner.shardOf(["a"])
+        [planner.shardOf(["a"]), planner.shardOf(["b"]), planner.shardOf(["d"])].toSet().size() == 3
+    }
+
+    def "never creates more shards than groups"() {
+        def planner = new ShardPlanner()
+        planner.addOperation(["pet"])
+        planner.addOperation(["pet"])
+
+        expect:
+        planner.plan(8) == 1
+        planner.shardOf(["pet"]) == 0
+    }
+}
@@ -381,6 +381,59 @@ class OpenApiClientGeneratorSpec extends AbstractOpenApiGeneratorSpec {
         file("build/generated/openapi/generateMyClientOpenApiModels/src/main/java/io/micronaut/openapi/model/Pet.java").exists()
     }
 
+    def "can generate several java OpenAPI clients in a shared worker process"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-client'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                openapi {
+                    processIsolation = true
+                    workerMaxHeapSize = "512m"
+                    client("first", file("petstore.json")) {
+                        invokerPackageName = "com.example.first"
+                        apiPackageName = "com.example.first.api"
+                        modelPackageName = "com.example.first.model"
+                    }
+                    client("second", file("petstore.json")) {
+                        invokerPackageName = "com.example.second"
+                        apiPackageName = "com.example.second.api"
+                        modelPackageName = "com.example.second.model"
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+
+                annotationProcessor "io.micronaut.serde:micronaut-serde-processor"
+
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+
+        """
+
+        withPetstore()
+
+        when:
+        def result = build('compileJava')
+
+        then:
+        result.task(":generateFirstOpenApiApis").outcome == TaskOutcome.SUCCESS
+        result.task(":generateSecondOpenApiApis").outcome == TaskOutcome.SUCCESS
+        result.task(":compileJava").outcome == TaskOutcome.SUCCESS
+
+        and:
+        file("build/generated/openapi/generateFirstOpenApiModels/src/main/java/com/example/first/model/Pet.java").exists()
+        file("build/generated/openapi/generateSecondOpenApiModels/src/main/java/com/example/second/model/Pet.java").exists()
+    }
+
     def "check properties for micronaut-openapi 6.14.0"() {
         given:
         settingsFile << "rootProject.name = 'openapi-server'"
@@ -1,5 +1,7 @@
 package io.micronaut.openapi.gradle
 
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
 import org.gradle.testkit.runner.TaskOutcome
 
 class OpenApiServerGeneratorSpec extends AbstractOpenApiGeneratorSpec {
@@ -303,6 +305,197 @@ class OpenApiServerGeneratorSpec extends AbstractOpenApiGeneratorSpec {
         file("build/classes/java/main/io/micronaut/openapi/model/Pet.class").exists()
     }
 
+    def "can generate apis and models of a java OpenAPI server in a single pass"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-server'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                runtime "netty"
+                testRuntime "junit5"
+                openapi {
+                    server(file("petstore.json")) {
+                        combinedGeneration = true
+                    }
+                }
+            }
+
+            $repositoriesBlock
+            application { mainClass = "example.Application" }
+
+            dependencies {
+                implementation "io.micronaut.security:micronaut-security"
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+        """
+
+        withPetstore()
+
+        when:
+        def result = build('compileJava')
+
+        then:
+        result.task(":generateServerOpenApiApis").outcome == TaskOutcome.SUCCESS
+        result.task(":generateServerOpenApiModels") == null
+        result.task(":compileJava").outcome == TaskOutcome.SUCCESS
+
+        and:
+        file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/api/PetApi.java").exists()
+        !file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/model/Pet.java").exists()
+        file("build/generated/openapi/generateServerOpenApiModels/src/main/java/io/micronaut/openapi/model/Pet.java").exists()
+        file("build/classes/java/main/io/micronaut/openapi/api/PetApi.class").exists()
+        file("build/classes/java/main/io/micronaut/openapi/model/Pet.class").exists()
+    }
+
+    def "can generate the apis of a java OpenAPI server in shards"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-server'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                runtime "netty"
+                testRuntime "junit5"
+                openapi {
+                    server(file("petstore.json")) {
+                        apiShards = 3
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+                implementation "io.micronaut.security:micronaut-security"
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+        """
+
+        withPetstore()
+
+        when:
+        def result = build('compileJava')
+
+        then:
+        result.task(":generateServerOpenApiApis").outcome == TaskOutcome.SUCCESS
+        result.task(":compileJava").outcome == TaskOutcome.SUCCESS
+
+        and:
+        ["PetApi", "StoreApi", "UserApi"].each {
+            assert file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/api/${it}.java").exists()
+            assert file("build/classes/java/main/io/micronaut/openapi/api/${it}.class").exists()
+        }
+        !file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/model").exists()
+    }
+
+    def "sharded apis use the model names of the models task for external references"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-server'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                runtime "netty"
+                testRuntime "junit5"
+                openapi {
+                    server(file("api/openapi.yaml")) {
+                        apiShards = 2
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+        """
+        file("api/schemas").mkdirs()
+        file("api/openapi.yaml").text = '''\
+            openapi: 3.0.1
+            info:
+              title: Example API
+              version: 1.0.0
+            paths:
+              /pets:
+                get:
+                  tags: [pets]
+                  operationId: listPets
+                  responses:
+                    '200':
+                      description: The pets
+                      content:
+                        application/json:
+                          schema:
+                            type: array
+                            items:
+                              $ref: 'schemas/pet.yaml'
+              /owners/{id}:
+                get:
+                  tags: [owners]
+                  operationId: getOwner
+                  parameters:
+                    - name: id
+                      in: path
+                      required: true
+                      schema:
+                        type: string
+                  responses:
+                    '200':
+                      description: The owner
+                      content:
+                        application/json:
+                          schema:
+                            $ref: 'schemas/owner.yaml#/Owner'
+            '''.stripIndent()
+        file("api/schemas/pet.yaml").text = '''\
+            type: object
+            properties:
+              name:
+                type: string
+              owner:
+                $ref: 'owner.yaml#/Owner'
+            '''.stripIndent()
+        file("api/schemas/owner.yaml").text = '''\
+            Owner:
+              type: object
+              properties:
+                name:
+                  type: string
+            '''.stripIndent()
+
+        when:
+        def result = build('compileJava')
+
+        then:
+        result.task(":generateServerOpenApiApis").outcome == TaskOutcome.SUCCESS
+        result.task(":generateServerOpenApiModels").outcome == TaskOutcome.SUCCESS
+        result.task(":compileJava").outcome == TaskOutcome.SUCCESS
+
+        and:
+        ["PetsApi", "OwnersApi"].each {
+            assert file("build/classes/java/main/io/micronaut/openapi/api/${it}.class").exists()
+        }
+        ["Pet", "Owner"].each {
+            assert file("build/generated/openapi/generateServerOpenApiModels/src/main/java/io/micronaut/openapi/model/${it}.java").exists()
+        }
+        file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/api/PetsApi.java").text.contains("io.micronaut.openapi.model.Pet;")
+        file("build/generated/openapi/generateServerOpenApiApis/src/main/java/io/micronaut/openapi/api/OwnersApi.java").text.contains("io.micronaut.openapi.model.Owner;")
+    }
+
     def "prunes stale generated server models on rerun"() {
         given:
         settingsFile << "rootProject.name = 'openapi-server'"
@@ -348,6 +541,120 @@ class OpenApiServerGeneratorSpec extends AbstractOpenApiGeneratorSpec {
         file("build/generated/openapi/generateServerOpenApiModels/src/main/java/io/micronaut/openapi/model/OtherExample.java").exists()
     }
 
+    def "only rewrites generated server sources which changed"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-server'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                runtime "netty"
+                testRuntime "junit5"
+                openapi {
+                    server(file("petstore.json")) {
+                        generateApis = false
+                        generatedAnnotation = false
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+        """
+        file("petstore.json").text = EXAMPLE_SPEC
+        def modelDir = "build/generated/openapi/generateServerOpenApiModels/src/main/java/io/micronaut/openapi/model"
+
+        when:
+        build("generateServerOpenApiModels")
+        def example = file("$modelDir/Example.java")
+        long timestamp = example.lastModified() - 60_000
+        example.setLastModified(timestamp)
+        def definitions = new JsonSlurper().parseText(OTHER_EXAMPLE_SPEC).definitions
+        def spec = new JsonSlurper().parseText(EXAMPLE_SPEC)
+        spec.definitions.putAll(definitions)
+        file("petstore.json").text = JsonOutput.toJson(spec)
+        def result = build("generateServerOpenApiModels")
+
+        then:
+        result.task(":generateServerOpenApiModels").outcome == TaskOutcome.SUCCESS
+        example.lastModified() == timestamp
+        file("$modelDir/OtherExample.java").exists()
+    }
+
+    def "reruns generation when a referenced definition file changes"() {
+        given:
+        settingsFile << "rootProject.name = 'openapi-server'"
+        buildFile << """
+            plugins {
+                id "io.micronaut.minimal.application"
+                id "io.micronaut.openapi"
+            }
+
+            micronaut {
+                version "$micronautVersion"
+                runtime "netty"
+                testRuntime "junit5"
+                openapi {
+                    server(file("api/petstore.json")) {
+                        generateApis = false
+                    }
+                }
+            }
+
+            $repositoriesBlock
+
+            dependencies {
+                implementation "io.micronaut.serde:micronaut-serde-jackson"
+            }
+        """
+        file("api/schemas").mkdirs()
+        file("api/petstore.json").text = '''\
+            {
+              "swagger": "2.0",
+              "info": {
+                "title": "Example API",
+                "version": "1.0.0"
+              },
+              "paths": {},
+              "definitions": {
+                "Example": {
+                  "$ref": "schemas/example.json"
+                }
+              }
+            }
+            '''.stripIndent()
+        file("api/schemas/example.json").text = '{ "type": "object", "properties": { "name": { "type": "string" } } }'
+        def example = file("build/generated/openapi/generateServerOpenApiModels/src/main/java/io/micronaut/openapi/model/Example.java")
+
+        when:
+        def result = build("generateServerOpenApiModels")
+
+        then:
+        result.task(":generateServerOpenApiModels").outcome in [TaskOutcome.SUCCESS, TaskOutcome.FROM_CACHE]
+        example.text.contains("name")
+
+        when:
+        result = build("generateServerOpenApiModels")
+
+        then:
+        result.task(":generateServerOpenApiModels").outcome == TaskOutcome.UP_TO_DATE
+
+        when:
+        file("api/schemas/example.json").text = '{ "type": "object", "properties": { "nickname": { "type": "string" } } }'
+        result = build("generateServerOpenApiModels")
+
+        then:
+        result.task(":generateServerOpenApiModels").outcome in [TaskOutcome.SUCCESS, TaskOutcome.FROM_CACHE]
+        example.text.contains("nickname")
+    }
+
     def "check properties for micronaut-openapi 6.14.0"() {
         given:
         settingsFile << "rootProject.name = 'openapi-server'"
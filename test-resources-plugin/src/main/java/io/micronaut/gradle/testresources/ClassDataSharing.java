@@ -0,0 +1,208 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.jvm.toolchain.JavaInstallationMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Configures class data sharing for the test resources server JVM.
+ * Archives are stored in a directory which is keyed by the server
+ * classpath and the Java runtime, so that an archive is never used
+ * with a classpath or a JVM it wasn't created for.
+ * <ul>
+ *     <li>on JDK 25+, the JDK AOT cache is created by the JVM at exit and used by the next server</li>
+ *     <li>on JDK 19+, a dynamic archive is created by the JVM at exit and used by the next server</li>
+ *     <li>on JDK 13+, the server JVM is asked to archive its classes at exit if the archive is missing</li>
+ *     <li>otherwise, the archive is dumped by the test resources build tools before starting the server,
+ *     which blocks the build</li>
+ * </ul>
+ * Archives for a different key are deleted.
+ */
+final class ClassDataSharing {
+    static final String KEY_ALGORITHM = "SHA-256";
+    static final String AOT_CACHE_FILE = "server.aot";
+    static final String ARCHIVE_FILE = "server.jsa";
+
+    private static final int AOT_CACHE_MIN_VERSION = 25;
+    private static final int AUTO_ARCHIVE_MIN_VERSION = 19;
+    private static final int ARCHIVE_AT_EXIT_MIN_VERSION = 13;
+    private static final int KEY_LENGTH = 16;
+
+    enum Mode {
+        AOT_CACHE,
+        DYNAMIC_ARCHIVE,
+        ARCHIVE_AT_EXIT,
+        BUILD_TOOLS
+    }
+
+    private final Mode mode;
+    private final Path directory;
+
+    ClassDataSharing(Mode mode, Path directory) {
+        this.mode = mode;
+        this.directory = directory;
+    }
+
+    /**
+     * Prepares class data sharing for a server.
+     * @param baseDirectory the directory where archives are stored
+     * @param classpath the server classpath
+     * @param javaLauncher the Java launcher, if any
+     * @param javaExecutable the Java executable, if any
+     * @return the class data sharing configuration
+     * @throws IOException if the archive directory cannot be prepared
+     */
+    static ClassDataSharing prepare(Path baseDirectory,
+                                    Collection<File> classpath,
+                                    JavaLauncher javaLauncher,
+                                    String javaExecutable) throws IOException {
+        String runtime;
+        int featureVersion;
+        if (javaExecutable != null) {
+            // we don't know which version this is
+            runtime = javaExecutable;
+            featureVersion = -1;
+        } else if (javaLauncher != null) {
+            JavaInstallationMetadata metadata = javaLauncher.getMetadata();
+            runtime = metadata.getVendor() + ":" + metadata.getJavaRuntimeVersion() + ":" + metadata.getInstallationPath().getAsFile().getAbsolutePath();
+            featureVersion = metadata.getLanguageVersion().asInt();
+        } else {
+            runtime = System.getProperty("java.vendor") + ":" + System.getProperty("java.runtime.version") + ":" + System.getProperty("java.home");
+            featureVersion = Runtime.version().feature();
+        }
+        Mode mode = modeFor(featureVersion, classpath);
+        String key = key(classpath, runtime + ":" + mode);
+        Path directory = baseDirectory.resolve(key);
+        Files.createDirectories(directory);
+        try {
+            deleteStaleArchives(baseDirectory, directory);
+        } catch (IOException e) {
+            // an archive may still be in use by a running server
+        }
+        return new ClassDataSharing(mode, directory);
+    }
+
+    static Mode modeFor(int featureVersion, Collection<File> classpath) {
+        // Archives created by the JVM require that classpath
+        // directories are empty
+        boolean jarsOnly = classpath.stream().allMatch(ClassDataSharing::isArchivable);
+        if (jarsOnly && featureVersion >= AOT_CACHE_MIN_VERSION) {
+            return Mode.AOT_CACHE;
+        }
+        if (jarsOnly && featureVersion >= AUTO_ARCHIVE_MIN_VERSION) {
+            return Mode.DYNAMIC_ARCHIVE;
+        }
+        if (jarsOnly && featureVersion >= ARCHIVE_AT_EXIT_MIN_VERSION) {
+            return Mode.ARCHIVE_AT_EXIT;
+        }
+        return Mode.BUILD_TOOLS;
+    }
+
+    static String key(Collection<File> classpath, String runtime) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(KEY_ALGORITHM);
+            digest.update(runtime.getBytes(StandardCharsets.UTF_8));
+            for (File file : classpath) {
+                digest.update((byte) 0);
+                digest.update(file.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+                digest.update(Long.toString(file.length()).getBytes(StandardCharsets.UTF_8));
+                digest.update(Long.toString(file.lastModified()).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, KEY_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the directory to pass to the test resources build tools,
+     * which is only set if they are responsible for dumping the archive.
+     * @return the directory, or null
+     */
+    Path getBuildToolsDirectory() {
+        return mode == Mode.BUILD_TOOLS ? directory : null;
+    }
+
+    /**
+     * Returns the JVM arguments to start the server with. If the archive
+     * doesn't exist, the JVM creates it when it exits, which doesn't delay
+     * the build.
+     * @return the JVM arguments
+     */
+    List<String> getJvmArguments() {
+        return switch (mode) {
+            case AOT_CACHE -> {
+                Path cache = directory.resolve(AOT_CACHE_FILE);
+                yield Files.exists(cache)
+                        ? List.of("-XX:AOTCache=" + cache)
+                        : List.of("-XX:AOTCacheOutput=" + cache);
+            }
+            case DYNAMIC_ARCHIVE -> List.of(
+                    "-XX:+AutoCreateSharedArchive",
+                    "-XX:SharedArchiveFile=" + directory.resolve(ARCHIVE_FILE)
+            );
+            case ARCHIVE_AT_EXIT -> {
+                Path archive = directory.resolve(ARCHIVE_FILE);
+                yield Files.exists(archive)
+                        ? List.of("-XX:SharedArchiveFile=" + archive)
+                        : List.of("-XX:ArchiveClassesAtExit=" + archive);
+            }
+            case BUILD_TOOLS -> List.of();
+        };
+    }
+
+    private static boolean isArchivable(File file) {
+        if (file.isFile()) {
+            return file.getName().endsWith(".jar");
+        }
+        String[] children = file.list();
+        return children == null || children.length == 0;
+    }
+
+    private static void deleteStaleArchives(Path baseDirectory, Path current) throws IOException {
+        try (Stream<Path> keys = Files.list(baseDirectory)) {
+            for (Path stale : keys.filter(p -> !p.equals(current)).toList()) {
+                try (Stream<Path> files = Files.walk(stale)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+}
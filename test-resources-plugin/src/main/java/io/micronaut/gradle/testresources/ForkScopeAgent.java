@@ -0,0 +1,121 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * A Java agent which is attached to test JVMs when forks are isolated,
+ * and which sets the test resources scope of the JVM it runs in, so that
+ * each fork uses its own resources. The scope is computed in the test
+ * JVM because Gradle doesn't know which process will run which tests.
+ * Since no other JVM uses the scope, the agent asks the server to close
+ * it when the JVM exits, which releases its resources even if the server
+ * outlives the build.
+ * This class must only depend on the JDK, since it is the only class
+ * of the agent jar.
+ */
+public final class ForkScopeAgent {
+    static final String SCOPE_PROPERTY = "micronaut.test.resources.scope";
+    static final String SERVER_URI_PROPERTY = "micronaut.test.resources.server.uri";
+    static final String ACCESS_TOKEN_PROPERTY = "micronaut.test.resources.server.access.token";
+    static final String ACCESS_TOKEN_HEADER = "Access-Token";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+    private static final int CLOSE_TIMEOUT_MILLIS = 60000;
+
+    private ForkScopeAgent() {
+
+    }
+
+    /**
+     * Sets the test resources scope to the agent argument, used as a prefix,
+     * followed by the id of the current process, unless a scope is already set.
+     * The scope is closed when the JVM exits.
+     * @param prefix the scope prefix
+     */
+    public static void premain(String prefix) {
+        if (System.getProperty(SCOPE_PROPERTY) == null) {
+            String scope = prefix + ProcessHandle.current().pid();
+            System.setProperty(SCOPE_PROPERTY, scope);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> closeScope(scope), "test-resources-scope-cleanup"));
+        }
+    }
+
+    /**
+     * Asks the test resources server to close a scope, that is to say to
+     * release the resources which were provisioned for it.
+     * @param scope the scope to close
+     * @return true if the server closed the scope
+     */
+    static boolean closeScope(String scope) {
+        String serverUri = System.getProperty(SERVER_URI_PROPERTY);
+        if (serverUri == null) {
+            return false;
+        }
+        try {
+            URI uri = URI.create(serverUri).resolve("/close/" + URLEncoder.encode(scope, StandardCharsets.UTF_8));
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            try {
+                connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+                connection.setReadTimeout(CLOSE_TIMEOUT_MILLIS);
+                String accessToken = System.getProperty(ACCESS_TOKEN_PROPERTY);
+                if (accessToken != null) {
+                    connection.setRequestProperty(ACCESS_TOKEN_HEADER, accessToken);
+                }
+                return connection.getResponseCode() < 300;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // the server is gone, and so are the resources of the scope
+            return false;
+        }
+    }
+
+    /**
+     * Writes the agent jar.
+     * @param jar the jar file to write
+     */
+    static void writeJar(File jar) {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Premain-Class", ForkScopeAgent.class.getName());
+        String entryName = ForkScopeAgent.class.getName().replace('.', '/') + ".class";
+        try {
+            Files.createDirectories(jar.getParentFile().toPath());
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()), manifest);
+                 InputStream in = ForkScopeAgent.class.getResourceAsStream("/" + entryName)) {
+                out.putNextEntry(new JarEntry(entryName));
+                in.transferTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
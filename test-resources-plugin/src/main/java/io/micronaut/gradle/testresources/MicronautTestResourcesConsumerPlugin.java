@@ -38,6 +38,7 @@ import org.gradle.api.tasks.TaskProvider;
 import org.gradle.api.tasks.testing.Test;
 
 import javax.inject.Inject;
+import java.io.File;
 
 import static io.micronaut.gradle.MicronautComponentPlugin.MICRONAUT_BOMS_CONFIGURATION;
 
@@ -124,6 +125,10 @@ public class MicronautTestResourcesConsumerPlugin implements Plugin<Project> {
 
         @TaskAction
         public void copy() {
+            getFiles().getFiles()
+                    .stream()
+                    .filter(File::isDirectory)
+                    .forEach(dir -> ServerStartup.await(dir.toPath()));
             getFileSystemOperations().copy(spec -> {
                 spec.into(getOutputDirectory());
                 spec.from(getFiles());
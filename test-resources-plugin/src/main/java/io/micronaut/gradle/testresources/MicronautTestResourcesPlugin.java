@@ -13,6 +13,7 @@ import io.micronaut.testresources.buildtools.ModuleIdentifier;
 import io.micronaut.testresources.buildtools.ServerUtils;
 import io.micronaut.testresources.buildtools.TestResourcesClasspath;
 import io.micronaut.testresources.buildtools.VersionInfo;
+import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.Plugin;
@@ -27,9 +28,10 @@ import org.gradle.api.artifacts.dsl.DependencyHandler;
 import org.gradle.api.artifacts.result.ResolvedComponentResult;
 import org.gradle.api.artifacts.result.ResolvedDependencyResult;
 import org.gradle.api.attributes.Usage;
+import org.gradle.api.execution.TaskExecutionGraph;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
-import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.plugins.JavaPlugin;
 import org.gradle.api.plugins.JavaPluginExtension;
 import org.gradle.api.plugins.PluginManager;
@@ -40,30 +42,30 @@ import org.gradle.api.tasks.JavaExec;
 import org.gradle.api.tasks.SourceSet;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.compile.AbstractCompile;
 import org.gradle.api.tasks.testing.Test;
-import org.gradle.internal.event.ListenerManager;
-import org.gradle.internal.service.ServiceRegistry;
-import org.gradle.internal.session.BuildSessionLifecycleListener;
+import org.gradle.build.event.BuildEventsListenerRegistry;
 import org.gradle.jvm.toolchain.JavaToolchainService;
 import org.gradle.process.JavaForkOptions;
 
+import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static io.micronaut.gradle.MicronautComponentPlugin.MICRONAUT_BOMS_CONFIGURATION;
-import static java.util.stream.Stream.concat;
 
 /**
  * This plugin integrates with Micronaut Test Resources.
@@ -71,16 +73,21 @@ import static java.util.stream.Stream.concat;
  * and provides configuration so that the user can precisely
  * tweak the behavior of the test resources server.
  */
-public class MicronautTestResourcesPlugin implements Plugin<Project> {
+public abstract class MicronautTestResourcesPlugin implements Plugin<Project> {
     public static final String START_TEST_RESOURCES_SERVICE = "startTestResourcesService";
     public static final String START_TEST_RESOURCES_SERVICE_INTERNAL = "internalStartTestResourcesService";
     public static final String STOP_TEST_RESOURCES_SERVICE = "stopTestResourcesService";
+    public static final String RELEASE_TEST_RESOURCES_SERVICE_INTERNAL = "internalReleaseTestResourcesService";
+    public static final String WRITE_FORK_SCOPE_AGENT_INTERNAL = "internalWriteTestResourcesForkScopeAgent";
     public static final String GROUP = "Micronaut Test Resources";
     public static final String TESTRESOURCES_CONFIGURATION = "testResourcesService";
     public static final String TESTRESOURCES_ELEMENTS_CONFIGURATION = "testresourcesSettingsElements";
     public static final String MICRONAUT_TEST_RESOURCES_USAGE = "micronaut.test.resources";
 
     private static final int DEFAULT_CLIENT_TIMEOUT_SECONDS = 60;
+    private static final String LIFECYCLE_SERVICE_NAME = "micronautTestResourcesLifecycle";
+    private static final String GROUP_SERVICE_NAME = "micronautTestResourcesGroups";
+    private static final String SERVER_GROUPS_DIR = ".micronaut/test-resources/groups";
     // Intellij creates synthetic run tasks which name ends with this suffix
     private static final String IDEA_RUN_TASK_SUFFIX = ".main()";
 
@@ -102,6 +109,9 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
         return client;
     }
 
+    @Inject
+    protected abstract BuildEventsListenerRegistry getBuildEventsListenerRegistry();
+
     @Override
     public void apply(Project project) {
         PluginManager pluginManager = project.getPluginManager();
@@ -131,27 +141,29 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
         Provider<String> accessTokenProvider = providers.provider(() -> accessToken);
         DirectoryProperty buildDirectory = project.getLayout().getBuildDirectory();
         File testResourcesDir = new File(project.getProjectDir(), ".micronaut/test-resources");
+        // projects of a server group use a directory of the root project
+        File groupsDir = new File(project.getRootDir(), SERVER_GROUPS_DIR);
         Provider<Directory> settingsDirectory = config.getSharedServer().flatMap(shared -> {
             DirectoryProperty directoryProperty = project.getObjects().directoryProperty();
             if (Boolean.TRUE.equals(shared)) {
                 String namespace = config.getSharedServerNamespace().getOrNull();
                 directoryProperty.set(ServerUtils.getDefaultSharedSettingsPath(namespace).toFile());
+            } else if (config.getServerGroup().isPresent()) {
+                directoryProperty.set(new File(new File(groupsDir, config.getServerGroup().get()), "test-resources-settings"));
             }
             return directoryProperty;
         }).orElse(project.getObjects().directoryProperty().fileValue(new File(testResourcesDir, "test-resources-settings")));
-        File portFile = new File(testResourcesDir, "test-resources-port.txt");
+        Provider<String> serverGroup = config.getSharedServer().flatMap(shared -> Boolean.TRUE.equals(shared) ? providers.provider(() -> null) : config.getServerGroup());
+        Provider<File> portFile = serverGroup
+                .map(group -> new File(new File(groupsDir, group), "test-resources-port.txt"))
+                .orElse(new File(testResourcesDir, "test-resources-port.txt"));
+        Provider<TestResourcesGroupService> groupService = project.getGradle().getSharedServices().registerIfAbsent(GROUP_SERVICE_NAME, TestResourcesGroupService.class);
         Path stopAtEndFile = createStopFile(project);
         TaskContainer tasks = project.getTasks();
-        Provider<Boolean> isStandalone = config.getSharedServer().zip(providers.provider(() -> {
-            boolean singleTask = project.getGradle().getStartParameter().getTaskNames().size() == 1;
-            boolean onlyStartTask = project.getGradle().getTaskGraph()
-                    .getAllTasks()
-                    .stream()
-                    .anyMatch(task -> task.getProject().equals(project) && task.getName().equals(START_TEST_RESOURCES_SERVICE));
-            return singleTask && onlyStartTask;
-        }), (shared, singleTask) -> shared || singleTask);
+        Provider<Boolean> isStandalone = config.getSharedServer().zip(standaloneRequest(project), (shared, standalone) -> shared || standalone);
         Provider<Directory> cdsDir = buildDirectory.dir("test-resources/cds");
-        TaskProvider<StartTestResourcesService> internalStart = createStartServiceTask(server, config, settingsDirectory, accessTokenProvider, tasks, portFile, stopAtEndFile, isStandalone, cdsDir);
+        TaskProvider<StartTestResourcesService> internalStart = createStartServiceTask(server, config, settingsDirectory, accessTokenProvider, tasks, portFile, stopAtEndFile, isStandalone, cdsDir, buildDirectory.file("reports/test-resources/timings.json"));
+        TaskProvider<ReleaseTestResourcesService> internalRelease = configureServerGroup(project, internalStart, serverGroup, groupService, settingsDirectory);
         tasks.register(START_TEST_RESOURCES_SERVICE, task -> {
             task.dependsOn(internalStart);
             task.setOnlyIf(t -> config.getEnabled().get());
@@ -166,10 +178,14 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
         PluginManager pluginManager = project.getPluginManager();
         pluginManager.withPlugin("org.graalvm.buildtools.native", unused -> TestResourcesGraalVM.configure(project, client, internalStart));
         pluginManager.withPlugin("io.micronaut.aot", unused -> TestResourcesAOT.configure(project, client));
-        configureServiceReset((ProjectInternal) project, settingsDirectory, stopAtEndFile);
+        configureServiceReset(project, settingsDirectory, stopAtEndFile);
+        TaskProvider<WriteForkScopeAgent> forkScopeAgent = tasks.register(WRITE_FORK_SCOPE_AGENT_INTERNAL, WriteForkScopeAgent.class, task ->
+                task.getAgentJar().convention(buildDirectory.file("test-resources/fork-scope-agent.jar"))
+        );
 
-        tasks.withType(Test.class).configureEach(task -> configureServerConnection(internalStart, task, config, testResourcesSourceSet));
-        tasks.withType(JavaExec.class).configureEach(task -> configureServerConnection(internalStart, task, config, testResourcesSourceSet));
+        tasks.withType(Test.class).configureEach(task -> configureServerConnection(internalStart, internalRelease, forkScopeAgent, serverGroup, task, config, testResourcesSourceSet));
+        tasks.withType(JavaExec.class).configureEach(task -> configureServerConnection(internalStart, internalRelease, forkScopeAgent, serverGroup, task, config, testResourcesSourceSet));
+        configureEarlyStart(tasks, internalStart, config, testResourcesSourceSet);
 
         workaroundForIntellij(project);
 
@@ -177,10 +193,14 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
 
 
     private static void configureServerConnection(TaskProvider<StartTestResourcesService> internalStart,
+                                                  TaskProvider<ReleaseTestResourcesService> internalRelease,
+                                                  TaskProvider<WriteForkScopeAgent> forkScopeAgent,
+                                                  Provider<String> serverGroup,
                                                   Task task,
                                                   TestResourcesConfiguration configuration,
                                                   SourceSet testResourcesSourceSet) {
         task.dependsOn(internalStart);
+        task.finalizedBy(serverGroup.map(group -> List.of(internalRelease)).orElse(List.of()));
         task.getInputs().files(configuration.getEnabled().map(enabled -> {
             if (enabled) {
                 return testResourcesSourceSet.getRuntimeClasspath();
@@ -188,11 +208,98 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
             return Collections.emptyList();
         })).withPropertyName("inputTestResourcesRuntimeClasspath").withNormalizer(ClasspathNormalizer.class);
         var settingsDirectory = internalStart.flatMap(StartTestResourcesService::getSettingsDirectory);
-        if (task instanceof JavaForkOptions jfo) {
+        if (task instanceof Test test) {
+            Provider<RegularFile> agentJar = configuration.getIsolateParallelForks()
+                    .filter(isolate -> isolate && test.getMaxParallelForks() > 1)
+                    .flatMap(isolate -> forkScopeAgent.flatMap(WriteForkScopeAgent::getAgentJar));
+            test.getJvmArgumentProviders().add(new ServerConnectionParametersProvider(settingsDirectory, agentJar));
+            // isolated forks request resources in their own scope, so they can't reuse preloaded ones
+            Provider<List<String>> ignoredPreloads = agentJar.flatMap(unused -> configuration.getPreloadedProperties());
+            test.doFirst(new WarnAboutIgnoredPreloads(ignoredPreloads));
+        } else if (task instanceof JavaForkOptions jfo) {
             jfo.getJvmArgumentProviders().add(new ServerConnectionParametersProvider(settingsDirectory));
         }
     }
 
+    private static final class WarnAboutIgnoredPreloads implements Action<Task> {
+        private final Provider<List<String>> ignoredPreloads;
+
+        private WarnAboutIgnoredPreloads(Provider<List<String>> ignoredPreloads) {
+            this.ignoredPreloads = ignoredPreloads;
+        }
+
+        @Override
+        public void execute(Task task) {
+            List<String> properties = ignoredPreloads.getOrElse(List.of());
+            if (!properties.isEmpty()) {
+                task.getLogger().warn("Test resources properties {} are preloaded, but the forks of task {} use their own test resources scope because isolateParallelForks is set, so they will not reuse the preloaded resources.", properties, task.getPath());
+            }
+        }
+    }
+
+    /**
+     * Configures the reference counting of the projects which use the
+     * server of a server group: the projects expected to use it are
+     * recorded once the task graph is ready, and each of them releases
+     * the server after all its tasks using it are done.
+     */
+    private static TaskProvider<ReleaseTestResourcesService> configureServerGroup(Project project,
+                                                                                 TaskProvider<StartTestResourcesService> internalStart,
+                                                                                 Provider<String> serverGroup,
+                                                                                 Provider<TestResourcesGroupService> groupService,
+                                                                                 Provider<Directory> settingsDirectory) {
+        TaskContainer tasks = project.getTasks();
+        String projectPath = project.getPath();
+        TaskProvider<ReleaseTestResourcesService> internalRelease = tasks.register(RELEASE_TEST_RESOURCES_SERVICE_INTERNAL, ReleaseTestResourcesService.class, task -> {
+            task.onlyIf(t -> serverGroup.isPresent());
+            task.usesService(groupService);
+            task.getGroupService().set(groupService);
+            task.getServerGroup().set(serverGroup);
+            task.getSettingsDirectory().set(settingsDirectory);
+            task.getProjectPath().set(projectPath);
+            task.mustRunAfter(tasks.withType(Test.class), tasks.withType(JavaExec.class));
+        });
+        internalStart.configure(task -> {
+            task.usesService(groupService);
+            task.getGroupService().set(groupService);
+            task.getServerGroup().set(serverGroup);
+            task.getProjectPath().set(projectPath);
+            task.getGroupConsumers().set(serverGroup.map(group -> groupService.get().getExpectedConsumers(group)));
+        });
+        String releasePath = (":".equals(projectPath) ? "" : projectPath) + ":" + RELEASE_TEST_RESOURCES_SERVICE_INTERNAL;
+        project.getGradle().getTaskGraph().whenReady(graph -> {
+            if (serverGroup.isPresent() && graph.hasTask(releasePath)) {
+                groupService.get().expect(serverGroup.get(), projectPath);
+            }
+        });
+        return internalRelease;
+    }
+
+    /**
+     * When early start is enabled, compilation tasks should run after the
+     * server is started, so that the server starts in the background while
+     * compiling. The compile tasks of the test resources source set are
+     * excluded since the server classpath depends on them.
+     */
+    private static void configureEarlyStart(TaskContainer tasks,
+                                            TaskProvider<StartTestResourcesService> internalStart,
+                                            TestResourcesConfiguration configuration,
+                                            SourceSet testResourcesSourceSet) {
+        Set<String> serverCompileTasks = Set.of(
+                testResourcesSourceSet.getCompileJavaTaskName(),
+                testResourcesSourceSet.getCompileTaskName("groovy"),
+                testResourcesSourceSet.getCompileTaskName("kotlin")
+        );
+        tasks.withType(AbstractCompile.class)
+                .matching(task -> !serverCompileTasks.contains(task.getName()))
+                .configureEach(task -> task.shouldRunAfter(configuration.getEarlyStart().map(early -> {
+                    if (Boolean.TRUE.equals(early)) {
+                        return List.of(internalStart);
+                    }
+                    return List.of();
+                })));
+    }
+
     private static void workaroundForIntellij(Project project) {
         // Fix "run" tasks in IDEA. Must use `afterEvaluate`, because the `configureEach`
         // action would otherwise be executed before the configuration of the task in
@@ -244,13 +351,14 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
                                                                            Provider<Directory> settingsDirectory,
                                                                            Provider<String> accessToken,
                                                                            TaskContainer tasks,
-                                                                           File portFile,
+                                                                           Provider<File> portFile,
                                                                            Path stopFile,
                                                                            Provider<Boolean> isStandalone,
-                                                                           Provider<Directory> cdsDir) {
+                                                                           Provider<Directory> cdsDir,
+                                                                           Provider<RegularFile> timingsReport) {
         return tasks.register(START_TEST_RESOURCES_SERVICE_INTERNAL, StartTestResourcesService.class, task -> {
             task.setOnlyIf(t -> config.getEnabled().get());
-            task.getPortFile().set(portFile);
+            task.getPortFile().fileProvider(portFile);
             task.getSettingsDirectory().convention(settingsDirectory);
             task.getAccessToken().convention(accessToken);
             task.getExplicitPort().convention(config.getExplicitPort());
@@ -268,10 +376,13 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
                 });
             }).getFiles());
             task.getForeground().convention(false);
+            task.getAsynchronous().convention(config.getEarlyStart());
             task.getStopFile().set(stopFile.toFile());
             task.getStandalone().set(isStandalone);
             task.getClassDataSharingDir().convention(cdsDir);
-            task.getUseClassDataSharing().convention(false);
+            task.getTimingsReportFile().convention(timingsReport);
+            task.getPreloadedProperties().convention(config.getPreloadedProperties());
+            task.getPreloadContext().convention(config.getPreloadContext());
             task.getSystemProperties().convention(config.getServerSystemProperties());
             task.getEnvironment().convention(config.getServerEnvironment());
             task.getDebugServer().convention(config.getDebugServer());
@@ -288,6 +399,8 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
         testResources.getVersion().convention(VersionInfo.getVersion());
         testResources.getExplicitPort().convention(explicitPort);
         testResources.getInferClasspath().convention(true);
+        testResources.getEarlyStart().convention(false);
+        testResources.getIsolateParallelForks().convention(false);
         testResources.getClientTimeout().convention(DEFAULT_CLIENT_TIMEOUT_SECONDS);
         testResources.getSharedServer().convention(
                 providers.gradleProperty("shared.test.resources")
@@ -323,48 +436,66 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
             List<MavenDependency> mavenDependencies = Collections.emptyList();
             if (Boolean.TRUE.equals(infer)) {
                 Configuration runtimeClasspath = project.getConfigurations().getByName("runtimeClasspath");
-                mavenDependencies = collectResolvedModuleDependencies(runtimeClasspath.getIncoming()
+                mavenDependencies = collectResolvedModules(runtimeClasspath.getIncoming()
                         .getResolutionResult()
                         .getRootComponent()
-                        .get(), new HashSet<>())
-                        .distinct()
-                        .toList();
+                        .get());
             }
             String testResourcesVersion = config.getVersion().get();
             assertMinimalVersion(testResourcesVersion);
-            return concat(concat(
-                            TestResourcesClasspath.inferTestResourcesClasspath(mavenDependencies, testResourcesVersion)
-                                    .stream()
-                                    .map(Object::toString),
-                            config.getAdditionalModules().getOrElse(Collections.emptyList())
-                                    .stream()
-                                    .map(m -> "io.micronaut.testresources:micronaut-test-resources-" + m + ":" + testResourcesVersion))
-                            .map(dependencies::create),
-                    Stream.of(dependencies.create(testResourcesSourceSet.getRuntimeClasspath())))
-                    .toList();
+            List<MavenDependency> inferredModules = TestResourcesClasspath.inferTestResourcesClasspath(mavenDependencies, testResourcesVersion);
+            List<String> additionalModules = config.getAdditionalModules().getOrElse(Collections.emptyList());
+            List<Dependency> result = new ArrayList<>(inferredModules.size() + additionalModules.size() + 1);
+            for (MavenDependency module : inferredModules) {
+                result.add(dependencies.create(module.toString()));
+            }
+            for (String module : additionalModules) {
+                result.add(dependencies.create("io.micronaut.testresources:micronaut-test-resources-" + module + ":" + testResourcesVersion));
+            }
+            result.add(dependencies.create(testResourcesSourceSet.getRuntimeClasspath()));
+            return result;
         }).orElse(Collections.emptyList());
     }
 
-    private static Stream<MavenDependency> collectResolvedModuleDependencies(ResolvedComponentResult component,
-                                                                             Set<ComponentIdentifier> seenComponents) {
-        if (!seenComponents.add(component.getId())) {
-            return Stream.empty();
-        }
-        Stream<MavenDependency> currentDependency = Stream.empty();
-        if (component.getId() instanceof ModuleComponentIdentifier moduleComponentIdentifier && !isBom(moduleComponentIdentifier)) {
-            currentDependency = Stream.of(new MavenDependency(
-                    moduleComponentIdentifier.getGroup(),
-                    moduleComponentIdentifier.getModule(),
-                    moduleComponentIdentifier.getVersion()
-            ));
+    /**
+     * Collects the modules of a resolved dependency graph, in depth-first
+     * order. The traversal is iterative so that deep graphs don't require
+     * deep stacks.
+     * @param root the root component
+     * @return the resolved modules
+     */
+    static List<MavenDependency> collectResolvedModules(ResolvedComponentResult root) {
+        Set<ComponentIdentifier> seenComponents = new HashSet<>();
+        Set<String> coordinates = new LinkedHashSet<>();
+        List<MavenDependency> modules = new ArrayList<>();
+        Deque<ResolvedComponentResult> stack = new ArrayDeque<>();
+        List<ResolvedComponentResult> children = new ArrayList<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ResolvedComponentResult component = stack.pop();
+            if (!seenComponents.add(component.getId())) {
+                continue;
+            }
+            if (component.getId() instanceof ModuleComponentIdentifier moduleComponentIdentifier && !isBom(moduleComponentIdentifier)) {
+                String group = moduleComponentIdentifier.getGroup();
+                String module = moduleComponentIdentifier.getModule();
+                String version = moduleComponentIdentifier.getVersion();
+                if (coordinates.add(group + ":" + module + ":" + version)) {
+                    modules.add(new MavenDependency(group, module, version));
+                }
+            }
+            children.clear();
+            for (var dependency : component.getDependencies()) {
+                if (dependency instanceof ResolvedDependencyResult resolved) {
+                    children.add(resolved.getSelected());
+                }
+            }
+            // push in reverse order so that children are visited in declaration order
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
         }
-        Stream<MavenDependency> transitiveDependencies = component.getDependencies()
-                .stream()
-                .filter(ResolvedDependencyResult.class::isInstance)
-                .map(ResolvedDependencyResult.class::cast)
-                .map(ResolvedDependencyResult::getSelected)
-                .flatMap(selected -> collectResolvedModuleDependencies(selected, seenComponents));
-        return concat(currentDependency, transitiveDependencies);
+        return modules;
     }
 
     private static boolean isBom(ModuleComponentIdentifier moduleComponentIdentifier) {
@@ -402,39 +533,35 @@ public class MicronautTestResourcesPlugin implements Plugin<Project> {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    private void configureServiceReset(ProjectInternal project,
+    private void configureServiceReset(Project project,
                                        Provider<Directory> settingsDirectory,
                                        Path shouldStopFile) {
-        ServiceRegistry services = project.getServices();
-        ListenerManager listenerManager = services.get(ListenerManager.class);
-        Field parentField;
-        try {
-            parentField = listenerManager.getClass().getDeclaredField("parent");
-
-            parentField.setAccessible(true);
-            listenerManager = (ListenerManager) parentField.get(parentField.get(listenerManager));
-            listenerManager.addListener(new BuildSessionLifecycleListener() {
-                @Override
-                public void beforeComplete() {
-                    try {
-                        if (Files.exists(shouldStopFile)) {
-                            List<String> stopFileLines = Files.readAllLines(shouldStopFile);
-                            if (project.getLogger().isDebugEnabled()) {
-                                project.getLogger().debug("Stop file contains {}", stopFileLines);
-                            }
-                            Files.deleteIfExists(shouldStopFile);
-                            if (!stopFileLines.isEmpty() && Boolean.parseBoolean(stopFileLines.get(0).trim())) {
-                                ServerUtils.stopServer(settingsDirectory.get().getAsFile().toPath());
-                            }
-                        }
-                    } catch (IOException e) {
-                        project.getLogger().debug("Test resources server is already stopped", e);
-                    }
-                }
+        Provider<TestResourcesLifecycleService> lifecycle = project.getGradle().getSharedServices().registerIfAbsent(
+            LIFECYCLE_SERVICE_NAME + project.getPath(),
+            TestResourcesLifecycleService.class,
+            spec -> {
+                TestResourcesLifecycleService.Params params = spec.getParameters();
+                params.getSettingsDirectory().set(settingsDirectory);
+                params.getStopFile().set(shouldStopFile.toFile());
+                params.getContinuous().set(project.getGradle().getStartParameter().isContinuous());
             });
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new GradleException(e.getMessage(), e);
-        }
+        getBuildEventsListenerRegistry().onTaskCompletion(lifecycle);
+    }
+
+    /**
+     * Determines, once the task graph is ready, if the requested tasks
+     * consist of the start task of this project only, in which case the
+     * server is kept alive after the build. Checking the task graph
+     * rather than the requested task names takes care of relative
+     * paths and abbreviated task names.
+     * @param project the project
+     * @return a provider telling if the server should be started in standalone mode
+     */
+    private static Provider<Boolean> standaloneRequest(Project project) {
+        boolean singleTask = project.getGradle().getStartParameter().getTaskNames().size() == 1;
+        TaskExecutionGraph taskGraph = project.getGradle().getTaskGraph();
+        String startTaskPath = (":".equals(project.getPath()) ? "" : project.getPath()) + ":" + START_TEST_RESOURCES_SERVICE;
+        return project.getProviders().provider(() -> singleTask && taskGraph.hasTask(startTaskPath));
     }
 
     private static Configuration createTestResourcesServerConfiguration(Project project) {
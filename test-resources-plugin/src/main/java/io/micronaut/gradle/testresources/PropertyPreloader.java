@@ -0,0 +1,143 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import groovy.json.JsonOutput;
+import org.gradle.api.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asks a running test resources server to resolve a list of
+ * properties, so that the corresponding test resources (e.g.
+ * containers) are started concurrently, before tests need them.
+ * Requests are asynchronous: the build doesn't wait for them,
+ * and failures are only logged since tests will request the
+ * properties again anyway.
+ */
+final class PropertyPreloader {
+    static final String SETTINGS_FILE = "test-resources.properties";
+    static final String SERVER_URI = "server.uri";
+    static final String ACCESS_TOKEN = "server.access.token";
+    static final String ACCESS_TOKEN_HEADER = "Access-Token";
+    static final String TEST_RESOURCES_CONFIG_PREFIX = "test-resources.";
+
+    private PropertyPreloader() {
+
+    }
+
+    /**
+     * Sends the resolution requests.
+     * @param settingsDirectory the settings directory of the server
+     * @param properties the properties to resolve
+     * @param context the application properties sent along with each request, including the
+     * test resources configuration, that is to say properties prefixed with {@code test-resources.}
+     * @param logger the logger
+     * @return a future which completes when all requests completed
+     */
+    static CompletableFuture<Void> preload(Path settingsDirectory,
+                                           List<String> properties,
+                                           Map<String, String> context,
+                                           Logger logger) {
+        if (properties.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Properties settings = new Properties();
+        try (InputStream in = Files.newInputStream(settingsDirectory.resolve(SETTINGS_FILE))) {
+            settings.load(in);
+        } catch (IOException e) {
+            logger.warn("Unable to preload test resources: cannot read server settings", e);
+            return CompletableFuture.completedFuture(null);
+        }
+        String serverUri = settings.getProperty(SERVER_URI);
+        if (serverUri == null) {
+            logger.warn("Unable to preload test resources: server URI is unknown");
+            return CompletableFuture.completedFuture(null);
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .executor(ServerStartup.EXECUTOR)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<CompletableFuture<?>> requests = new ArrayList<>(properties.size());
+        for (String property : properties) {
+            HttpRequest request = createRequest(URI.create(serverUri).resolve("/resolve"), settings.getProperty(ACCESS_TOKEN), property, context);
+            long start = System.nanoTime();
+            requests.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                        if (error != null) {
+                            logger.warn("Unable to preload test resource property {}", property, error);
+                        } else if (response.statusCode() >= 300) {
+                            logger.warn("Unable to preload test resource property {}: server answered with status {}", property, response.statusCode());
+                        } else {
+                            logger.info("Preloaded test resource property {} in {}ms", property, millis);
+                        }
+                    }));
+        }
+        return CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+                .exceptionally(e -> null);
+    }
+
+    /**
+     * Creates a resolution request which is the same as the one a test JVM
+     * sends for the same application configuration, so that the server
+     * reuses the preloaded resource instead of provisioning another one.
+     * Like in the client, properties of the {@code test-resources} prefix
+     * are sent as the test resources configuration, without the prefix.
+     * No scope is sent, which is the scope of every JVM but isolated forks.
+     * @param uri the resolution endpoint
+     * @param accessToken the access token, may be null
+     * @param property the property to resolve
+     * @param context the application properties
+     * @return the request
+     */
+    static HttpRequest createRequest(URI uri, String accessToken, String property, Map<String, String> context) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        Map<String, Object> testResourcesConfig = new LinkedHashMap<>();
+        context.forEach((key, value) -> {
+            if (key.startsWith(TEST_RESOURCES_CONFIG_PREFIX)) {
+                testResourcesConfig.put(key.substring(TEST_RESOURCES_CONFIG_PREFIX.length()), value);
+            } else {
+                properties.put(key, value);
+            }
+        });
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", property);
+        body.put("properties", properties);
+        body.put("testResourcesConfig", testResourcesConfig);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JsonOutput.toJson(body)));
+        if (accessToken != null) {
+            builder.header(ACCESS_TOKEN_HEADER, accessToken);
+        }
+        return builder.build();
+    }
+}
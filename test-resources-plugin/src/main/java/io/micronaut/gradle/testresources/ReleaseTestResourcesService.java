@@ -0,0 +1,82 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import io.micronaut.testresources.buildtools.ServerUtils;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A task which releases the test resources server of a server group
+ * once all the tasks of a project which use it are done. The server
+ * is stopped when the last project of the group releases it.
+ */
+public abstract class ReleaseTestResourcesService extends DefaultTask {
+    /**
+     * The server group.
+     *
+     * @return the server group
+     */
+    @Internal
+    public abstract Property<String> getServerGroup();
+
+    /**
+     * The settings directory of the server of the group.
+     *
+     * @return the settings directory
+     */
+    @Internal
+    public abstract DirectoryProperty getSettingsDirectory();
+
+    /**
+     * The path of the project releasing the server.
+     *
+     * @return the project path
+     */
+    @Internal
+    public abstract Property<String> getProjectPath();
+
+    @Internal
+    public abstract Property<TestResourcesGroupService> getGroupService();
+
+    @Inject
+    public ReleaseTestResourcesService() {
+        setDescription("Releases the test resources server of the server group");
+    }
+
+    @TaskAction
+    void release() {
+        String group = getServerGroup().get();
+        if (getGroupService().get().release(group, getProjectPath().get())) {
+            getLogger().lifecycle("Stopping test resources server of group {}", group);
+            Path settingsDirectory = getSettingsDirectory().get().getAsFile().toPath();
+            ServerTimings.complete(settingsDirectory, getLogger());
+            ServerStartup.clear(settingsDirectory, getLogger());
+            try {
+                ServerUtils.stopServer(settingsDirectory);
+            } catch (IOException e) {
+                getLogger().debug("Test resources server is already stopped", e);
+            }
+        }
+    }
+}
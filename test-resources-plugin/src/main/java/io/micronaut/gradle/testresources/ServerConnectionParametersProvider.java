@@ -16,9 +16,14 @@
 package io.micronaut.gradle.testresources;
 
 import org.gradle.api.file.Directory;
+import org.gradle.api.file.RegularFile;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
 import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.process.CommandLineArgumentProvider;
 
 import java.io.File;
@@ -26,14 +31,37 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 public class ServerConnectionParametersProvider implements CommandLineArgumentProvider {
+    /**
+     * The system property used by the test resources client
+     * to determine the scope of the resources it requests.
+     */
+    public static final String SCOPE_PROPERTY = ForkScopeAgent.SCOPE_PROPERTY;
+
+    private static final String FORK_SCOPE_PREFIX = "fork-";
+
     private final Provider<Directory> settingsDirectory;
+    private final Provider<RegularFile> forkScopeAgent;
 
     public ServerConnectionParametersProvider(Provider<Directory> settingsDirectory) {
+        this(settingsDirectory, null);
+    }
+
+    /**
+     * Creates a provider which can also give each forked JVM its own
+     * test resources scope: resources are not shared between scopes.
+     * @param settingsDirectory the server settings directory
+     * @param forkScopeAgent the jar of the agent which sets the scope of each
+     * JVM, may be null or absent if JVMs don't use their own scope
+     */
+    public ServerConnectionParametersProvider(Provider<Directory> settingsDirectory, Provider<RegularFile> forkScopeAgent) {
         this.settingsDirectory = settingsDirectory;
+        this.forkScopeAgent = forkScopeAgent;
     }
 
     @Internal
@@ -49,20 +77,37 @@ public class ServerConnectionParametersProvider implements CommandLineArgumentPr
         return settingsDirectory.map(directory -> directory.getAsFile().getName());
     }
 
+    @InputFile
+    @Optional
+    @PathSensitive(PathSensitivity.NONE)
+    public Provider<RegularFile> getForkScopeAgent() {
+        return forkScopeAgent;
+    }
+
     @Override
     public Iterable<String> asArguments() {
         Properties props = new Properties();
-        File serverConfig = new File(settingsDirectory.get().getAsFile(), "test-resources.properties");
+        File settingsDir = settingsDirectory.get().getAsFile();
+        // the server may still be starting in the background
+        ServerStartup.await(settingsDir.toPath());
+        File serverConfig = new File(settingsDir, "test-resources.properties");
         if (serverConfig.exists()) {
             try (InputStream in = new FileInputStream(serverConfig)) {
                 props.load(in);
             } catch (IOException e) {
                 throw new UncheckedIOException(e);
             }
-            return props.keySet()
+            List<String> arguments = new ArrayList<>();
+            props.keySet()
                     .stream()
                     .map(key -> "-Dmicronaut.test.resources." + key + "=" + props.getProperty(key.toString()))
-                    .toList();
+                    .forEach(arguments::add);
+            if (forkScopeAgent != null && forkScopeAgent.isPresent()) {
+                // the scope is computed by the agent, in each JVM
+                File agent = forkScopeAgent.get().getAsFile();
+                arguments.add("-javaagent:" + agent.getAbsolutePath() + "=" + FORK_SCOPE_PREFIX);
+            }
+            return arguments;
         }
         return Collections.emptyList();
     }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waits for the test resources server to become ready. Instead of
+ * sleeping for a fixed amount of time, the port file is watched so
+ * that waiting stops as soon as the server wrote it, then the server
+ * port is probed until it accepts connections.
+ * Waiting never exceeds the requested duration, so that the caller
+ * can re-check its own conditions, and we fall back to sleeping if
+ * the file system doesn't support watching.
+ */
+final class ServerReadinessWatcher implements AutoCloseable {
+    private static final long CONNECT_RETRY_MILLIS = 10;
+
+    private final Path portFile;
+    private final Integer explicitPort;
+    private final BooleanSupplier serverExited;
+    private final WatchService watchService;
+
+    ServerReadinessWatcher(Path portFile, Integer explicitPort, BooleanSupplier serverExited) {
+        this.portFile = portFile;
+        this.explicitPort = explicitPort;
+        this.serverExited = serverExited;
+        this.watchService = createWatchService(portFile);
+    }
+
+    /**
+     * Waits until the server is likely to be ready, or until
+     * the duration elapsed, whichever comes first.
+     * @param duration the maximal amount of time to wait
+     * @throws InterruptedException if the thread is interrupted
+     */
+    void await(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        if (explicitPort == null && portFile == null) {
+            sleepUntil(deadline);
+            return;
+        }
+        if (explicitPort == null && !Files.exists(portFile)) {
+            if (!awaitPortFile(deadline)) {
+                return;
+            }
+        }
+        Integer port = explicitPort != null ? explicitPort : readPort();
+        if (port == null) {
+            return;
+        }
+        awaitConnectable(port, deadline);
+    }
+
+    private boolean awaitPortFile(long deadline) throws InterruptedException {
+        if (watchService == null) {
+            sleepUntil(deadline);
+            return Files.exists(portFile);
+        }
+        try {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0 && !serverExited.getAsBoolean()) {
+                WatchKey key = watchService.poll(remaining, TimeUnit.NANOSECONDS);
+                if (key == null) {
+                    break;
+                }
+                boolean changed = key.pollEvents()
+                        .stream()
+                        .map(WatchEvent::context)
+                        .anyMatch(portFile.getFileName()::equals);
+                key.reset();
+                if (changed || Files.exists(portFile)) {
+                    return true;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            sleepUntil(deadline);
+        }
+        return Files.exists(portFile);
+    }
+
+    private void awaitConnectable(int port, long deadline) throws InterruptedException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0 && !serverExited.getAsBoolean()) {
+            try (var socket = new Socket()) {
+                socket.connect(new InetSocketAddress(loopback, port), (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                return;
+            } catch (IOException e) {
+                Thread.sleep(Math.min(CONNECT_RETRY_MILLIS, Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))));
+            }
+        }
+    }
+
+    private Integer readPort() {
+        try {
+            List<String> lines = Files.readAllLines(portFile);
+            if (!lines.isEmpty()) {
+                return Integer.parseInt(lines.get(0).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            // the server may still be writing the file
+        }
+        return null;
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static WatchService createWatchService(Path portFile) {
+        if (portFile == null || portFile.getParent() == null) {
+            return null;
+        }
+        WatchService service = null;
+        try {
+            Path directory = Files.createDirectories(portFile.getParent());
+            service = FileSystems.getDefault().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+            closeQuietly(service);
+            return null;
+        }
+    }
+
+    private static void closeQuietly(WatchService service) {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(watchService);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of test resources servers which are being started
+ * in the background. Test resources servers are long-running
+ * processes which may outlive the task which started them, so
+ * they are started from daemon threads.
+ * <p>
+ * When a server is started asynchronously, its settings directory
+ * is the synchronization point: consumers of the settings directory
+ * must call {@link #await(Path)} before reading it.
+ */
+final class ServerStartup {
+    static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory());
+
+    private static final Map<Path, Startup> PENDING = new ConcurrentHashMap<>();
+
+    private ServerStartup() {
+
+    }
+
+    static void register(Path settingsDirectory, Future<?> startup) {
+        PENDING.put(normalize(settingsDirectory), new Startup(startup));
+    }
+
+    /**
+     * Forgets about the server started for the supplied directory.
+     * If the server failed to start in the background, and nothing
+     * waited for it, the failure is reported, since it would
+     * otherwise be lost.
+     * @param settingsDirectory the settings directory
+     * @param logger the logger used to report the failure
+     */
+    static void clear(Path settingsDirectory, Logger logger) {
+        Startup startup = PENDING.remove(normalize(settingsDirectory));
+        if (startup == null || startup.awaited || !startup.future.isDone()) {
+            return;
+        }
+        try {
+            startup.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Test resources server failed to start in the background", e.getCause());
+        }
+    }
+
+    /**
+     * Waits until the server writing its settings into the
+     * supplied directory is ready. Returns immediately if
+     * no server is being started for this directory.
+     * @param settingsDirectory the settings directory
+     */
+    static void await(Path settingsDirectory) {
+        Startup startup = PENDING.get(normalize(settingsDirectory));
+        if (startup == null) {
+            return;
+        }
+        startup.awaited = true;
+        try {
+            startup.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GradleException("Interrupted while waiting for the test resources server to start", e);
+        } catch (ExecutionException e) {
+            throw new GradleException("Test server failed to start", e.getCause());
+        }
+    }
+
+    private static Path normalize(Path settingsDirectory) {
+        return settingsDirectory.toAbsolutePath().normalize();
+    }
+
+    private static final class Startup {
+        private final Future<?> future;
+        private volatile boolean awaited;
+
+        private Startup(Future<?> future) {
+            this.future = future;
+        }
+    }
+
+    private static final class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "test-resources-server-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import groovy.json.JsonOutput;
+import io.micronaut.gradle.Strings;
+import org.gradle.api.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects provisioning timings of a test resources server: the
+ * time it took for the server to be ready, and the time spent pulling
+ * images and starting containers, which is extracted from the
+ * Testcontainers messages the server writes to its standard output.
+ * The timings are written as a JSON report when the server is ready,
+ * then again when it is stopped, or when the build completes.
+ */
+final class ServerTimings {
+    private static final Map<Path, ServerTimings> ACTIVE = new ConcurrentHashMap<>();
+
+    private static final Pattern PULLING = Pattern.compile("Pulling docker image: (\\S+?)\\.? Please be patient");
+    private static final Pattern PULLED = Pattern.compile("(?:tc\\.(\\S+) - )?Pull complete\\.");
+    private static final Pattern CREATING = Pattern.compile("Creating container for image: (\\S+)");
+    private static final Pattern STARTED = Pattern.compile("Container (\\S+) started in (PT[0-9.HMS]+)");
+
+    private final Path reportFile;
+    private final long createdAt = System.nanoTime();
+    private final List<Map<String, Object>> imagePulls = new ArrayList<>();
+    private final List<Map<String, Object>> containers = new ArrayList<>();
+    private final Map<String, Long> pendingPulls = new LinkedHashMap<>();
+    private long serverReadyMillis = -1;
+    private String classDataSharing;
+
+    ServerTimings(Path reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Registers the timings of a server which was started, so that
+     * the final report is written when it is stopped.
+     * @param settingsDirectory the server settings directory
+     * @param timings the timings of the server
+     */
+    static void register(Path settingsDirectory, ServerTimings timings) {
+        ACTIVE.put(settingsDirectory.toAbsolutePath().normalize(), timings);
+    }
+
+    /**
+     * Writes the final report of the server using this settings
+     * directory, if any, and logs a summary.
+     * @param settingsDirectory the server settings directory
+     * @param logger the logger
+     */
+    static void complete(Path settingsDirectory, Logger logger) {
+        var timings = ACTIVE.remove(settingsDirectory.toAbsolutePath().normalize());
+        if (timings != null) {
+            timings.writeReport(logger);
+            logger.lifecycle(timings.summary());
+        }
+    }
+
+    synchronized void serverReady(long millis, String classDataSharingMode) {
+        this.serverReadyMillis = millis;
+        this.classDataSharing = classDataSharingMode;
+    }
+
+    /**
+     * Returns an output stream which forwards to the delegate
+     * and collects timings from the lines written to it.
+     * @param delegate the delegate stream
+     * @return the monitoring stream
+     */
+    OutputStream monitor(OutputStream delegate) {
+        return new LineObserver(delegate);
+    }
+
+    synchronized void onLine(String line) {
+        Matcher matcher = PULLING.matcher(line);
+        if (matcher.find()) {
+            pendingPulls.putIfAbsent(matcher.group(1), System.nanoTime());
+            return;
+        }
+        matcher = PULLED.matcher(line);
+        if (matcher.find() && !pendingPulls.isEmpty()) {
+            // Testcontainers loggers are named after the image, otherwise use the oldest pending pull
+            String image = matcher.group(1) != null && pendingPulls.containsKey(matcher.group(1))
+                    ? matcher.group(1)
+                    : pendingPulls.keySet().iterator().next();
+            long start = pendingPulls.remove(image);
+            imagePulls.add(entry("image", image, "millis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return;
+        }
+        matcher = CREATING.matcher(line);
+        if (matcher.find()) {
+            containers.add(entry("image", matcher.group(1), "millis", -1L));
+            return;
+        }
+        matcher = STARTED.matcher(line);
+        if (matcher.find()) {
+            try {
+                long millis = Duration.parse(matcher.group(2)).toMillis();
+                String image = matcher.group(1);
+                containers.stream()
+                        .filter(c -> image.equals(c.get("image")) && (Long) c.get("millis") < 0)
+                        .findFirst()
+                        .ifPresentOrElse(c -> c.put("millis", millis), () -> containers.add(entry("image", image, "millis", millis)));
+            } catch (DateTimeParseException e) {
+                // ignore unexpected format
+            }
+        }
+    }
+
+    synchronized Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("serverReadyMillis", serverReadyMillis);
+        report.put("classDataSharing", classDataSharing);
+        report.put("uptimeMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdAt));
+        report.put("imagePulls", imagePulls.stream().map(LinkedHashMap::new).toList());
+        report.put("containers", containers.stream().map(LinkedHashMap::new).toList());
+        report.put("imagePullMillis", imagePulls.stream().mapToLong(p -> (Long) p.get("millis")).sum());
+        report.put("containerStartMillis", containers.stream().mapToLong(c -> Math.max(0, (Long) c.get("millis"))).sum());
+        return report;
+    }
+
+    synchronized String summary() {
+        var sb = new StringBuilder("Test resources server ready in ").append(serverReadyMillis).append("ms");
+        if (!imagePulls.isEmpty()) {
+            sb.append(", ").append(imagePulls.size()).append(" image(s) pulled in ")
+                    .append(toReport().get("imagePullMillis")).append("ms");
+        }
+        for (Map<String, Object> container : containers) {
+            sb.append(System.lineSeparator()).append("  container ").append(container.get("image"));
+            long millis = (Long) container.get("millis");
+            sb.append(millis < 0 ? " (not started)" : " started in " + millis + "ms");
+        }
+        return sb.toString();
+    }
+
+    void writeReport(Logger logger) {
+        if (reportFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, JsonOutput.prettyPrint(JsonOutput.toJson(toReport())), StandardCharsets.UTF_8);
+            logger.info("Test resources timings written to {}", Strings.clickableUrl(reportFile.toFile()));
+        } catch (IOException e) {
+            logger.warn("Unable to write test resources timings to {}", reportFile, e);
+        }
+    }
+
+    private static Map<String, Object> entry(String k1, Object v1, String k2, Object v2) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put(k1, v1);
+        entry.put(k2, v2);
+        return entry;
+    }
+
+    private final class LineObserver extends OutputStream {
+        private final OutputStream delegate;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private LineObserver(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (b == '\n') {
+                flushLine();
+            } else {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    line.write(b, start, i - start);
+                    flushLine();
+                    start = i + 1;
+                }
+            }
+            line.write(b, start, off + len - start);
+        }
+
+        private void flushLine() {
+            onLine(line.toString(StandardCharsets.UTF_8));
+            line.reset();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (line.size() > 0) {
+                flushLine();
+            }
+            delegate.flush();
+        }
+    }
+}
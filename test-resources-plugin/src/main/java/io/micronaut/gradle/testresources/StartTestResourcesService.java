@@ -24,6 +24,7 @@ import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.api.tasks.Classpath;
@@ -48,6 +49,12 @@ import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A task responsible for starting a test resources server.
@@ -172,9 +179,98 @@ public abstract class StartTestResourcesService extends DefaultTask {
     @Internal
     public abstract Property<Boolean> getStandalone();
 
+    /**
+     * If set to true, the task doesn't wait for the server
+     * to be ready: the server is started in the background
+     * and tasks which need it wait for it right before they
+     * execute. This is ignored when the server is started in
+     * foreground or in standalone mode.
+     *
+     * @return the asynchronous start property
+     */
+    @Internal
+    public abstract Property<Boolean> getAsynchronous();
+
+    /**
+     * Configures class data sharing for the test resources server JVM,
+     * which makes it start faster. The archives are keyed by the server
+     * classpath and the Java runtime, and are created by the server JVM
+     * when it exits if they are missing (using the AOT cache on JDK 25+).
+     * If not set, which is the default, class data sharing is only used
+     * when the server JVM can create the archive itself. If set to true,
+     * it is also used when the archive has to be dumped before the server
+     * starts, which blocks the build.
+     *
+     * @return the class data sharing property
+     */
     @Internal
     public abstract Property<Boolean> getUseClassDataSharing();
 
+    /**
+     * Properties which should be resolved by the server as
+     * soon as it is ready.
+     *
+     * @return the properties to preload
+     */
+    @Input
+    @Optional
+    public abstract ListProperty<String> getPreloadedProperties();
+
+    /**
+     * Properties which are sent along with each preloaded property.
+     *
+     * @return the preload context
+     */
+    @Input
+    @Optional
+    public abstract MapProperty<String, String> getPreloadContext();
+
+    /**
+     * The file where provisioning timings of the server are written,
+     * in JSON format. The report is written when the server is ready,
+     * then updated when the server is stopped or when the build
+     * completes.
+     *
+     * @return the timings report file
+     */
+    @Internal
+    public abstract RegularFileProperty getTimingsReportFile();
+
+    /**
+     * The server group this project belongs to, if any. Projects of
+     * the same group share a server, which is started by the first
+     * of them.
+     *
+     * @return the server group
+     */
+    @Internal
+    public abstract Property<String> getServerGroup();
+
+    /**
+     * The projects which are expected to use the server of the group
+     * during this build.
+     *
+     * @return the expected consumer projects
+     */
+    @Internal
+    public abstract ListProperty<String> getGroupConsumers();
+
+    /**
+     * The path of the project starting the server.
+     *
+     * @return the project path
+     */
+    @Internal
+    public abstract Property<String> getProjectPath();
+
+    @Internal
+    public abstract Property<TestResourcesGroupService> getGroupService();
+
+    /**
+     * The directory where class data sharing archives are stored.
+     *
+     * @return the class data sharing directory
+     */
     @Internal
     public abstract DirectoryProperty getClassDataSharingDir();
 
@@ -206,78 +302,186 @@ public abstract class StartTestResourcesService extends DefaultTask {
 
     @TaskAction
     public void startService() throws IOException {
-        Path cdsDir = null;
-        if (getUseClassDataSharing().get()) {
-            cdsDir = getClassDataSharingDir().get().getAsFile().toPath();
+        Path settingsDirectory = getSettingsDirectory().get().getAsFile().toPath();
+        String group = getServerGroup().getOrNull();
+        if (group == null) {
+            startOrReuse(settingsDirectory);
+            return;
         }
-        ServerFactory serverFactory = new ServerFactory() {
-            @Override
-            public void startServer(ServerUtils.ProcessParameters processParameters) throws IOException {
+        TestResourcesGroupService groups = getGroupService().get();
+        groups.acquire(group, getProjectPath().get(), getGroupConsumers().getOrElse(List.of()));
+        synchronized (groups.lockFor(group)) {
+            // another project of the group may be starting the server in the background
+            ServerStartup.await(settingsDirectory);
+            if (startOrReuse(settingsDirectory) && !Boolean.TRUE.equals(getStandalone().get())) {
+                groups.markOwned(group);
+            }
+        }
+        getLogger().info("Test resources server of group {} used by {} project(s)", group, groups.getActiveConsumerCount(group));
+    }
+
+    /**
+     * Starts a server, or reuses the existing one.
+     * @param settingsDirectory the settings directory
+     * @return true if a new server was started
+     * @throws IOException if the server cannot be started
+     */
+    private boolean startOrReuse(Path settingsDirectory) throws IOException {
+        Integer explicitPort = getExplicitPort().getOrNull();
+        Path portFile = getPortFile().map(f -> f.getAsFile().toPath()).getOrNull();
+        ServerStartup.clear(settingsDirectory, getLogger());
+        if (canReuseExistingServer(settingsDirectory, portFile)) {
+            if (Boolean.TRUE.equals(getStandalone().get())) {
+                // a server kept alive by a continuous build becomes standalone
                 Path stopFilePath = getStopFile().getAsFile().get().toPath();
-                if (!Files.exists(stopFilePath)) {
-                    if (Boolean.TRUE.equals(getStandalone().get())) {
-                        getLogger().lifecycle("Test resources server started in standalone mode. You can stop it by running the " + MicronautTestResourcesPlugin.STOP_TEST_RESOURCES_SERVICE + " task.");
-                    }
-                    String stop = getStandalone().map(v -> String.valueOf(!v)).get();
-                    Files.createDirectories(stopFilePath.getParent());
-                    Files.write(stopFilePath, Collections.singletonList(stop), StandardOpenOption.CREATE);
-                }
-                var javaLauncher = getJavaLauncher().getOrNull();
-                if (Boolean.TRUE.equals(getForeground().get()) || processParameters.isCDSDumpInvocation()) {
-                    startService(processParameters, javaLauncher);
-                } else {
-                    new Thread(() -> startService(processParameters, javaLauncher)).start();
+                if (Files.exists(stopFilePath)) {
+                    Files.write(stopFilePath, Collections.singletonList("false"));
                 }
             }
+            preload(settingsDirectory);
+            return false;
+        }
+        Set<File> classpath = getClasspath().getFiles();
+        ClassDataSharing cds = null;
+        Boolean useClassDataSharing = getUseClassDataSharing().getOrNull();
+        if (!Boolean.FALSE.equals(useClassDataSharing)) {
+            cds = ClassDataSharing.prepare(getClassDataSharingDir().get().getAsFile().toPath(), classpath, getJavaLauncher().getOrNull(), getJavaExecutable().getOrNull());
+            if (useClassDataSharing == null && cds.getMode() == ClassDataSharing.Mode.BUILD_TOOLS) {
+                // dumping the archive before starting the server would block the build
+                getLogger().info("Not using class data sharing for the test resources server because the archive cannot be created when the server exits");
+                cds = null;
+            } else {
+                getLogger().info("Using class data sharing mode {} for the test resources server in {}", cds.getMode(), cds.getDirectory());
+            }
+        }
+        Path reportFile = getTimingsReportFile().map(f -> f.getAsFile().toPath()).getOrNull();
+        ServerTimings timings = new ServerTimings(reportFile);
+        if (Boolean.TRUE.equals(getAsynchronous().getOrElse(false))
+            && !Boolean.TRUE.equals(getForeground().get())
+            && !Boolean.TRUE.equals(getStandalone().get())) {
+            ClassDataSharing finalCds = cds;
+            getLogger().info("Starting test resources server in the background");
+            ServerStartup.register(settingsDirectory, ServerStartup.EXECUTOR.submit(() -> {
+                startServer(settingsDirectory, explicitPort, portFile, finalCds, classpath, timings);
+                return null;
+            }));
+        } else {
+            startServer(settingsDirectory, explicitPort, portFile, cds, classpath, timings);
+        }
+        return true;
+    }
 
-            private void startService(ServerUtils.ProcessParameters processParameters, JavaLauncher javaLauncher) {
-                var executable = getJavaExecutable().getOrNull();
-                if (executable == null && javaLauncher != null) {
-                    executable = javaLauncher.getExecutablePath().getAsFile().getAbsolutePath();
+    private void startServer(Path settingsDirectory, Integer explicitPort, Path portFile, ClassDataSharing cds, Set<File> serverClasspath, ServerTimings timings) throws IOException {
+        var serverProcess = new AtomicReference<Future<?>>();
+        // The watcher must be registered before the server is started,
+        // otherwise we could miss the creation of the port file
+        try (var readiness = new ServerReadinessWatcher(portFile, explicitPort, () -> isDone(serverProcess.get()))) {
+            ServerFactory serverFactory = new ServerFactory() {
+                @Override
+                public void startServer(ServerUtils.ProcessParameters processParameters) throws IOException {
+                    Path stopFilePath = getStopFile().getAsFile().get().toPath();
+                    if (!Files.exists(stopFilePath)) {
+                        if (Boolean.TRUE.equals(getStandalone().get())) {
+                            getLogger().lifecycle("Test resources server started in standalone mode. You can stop it by running the " + MicronautTestResourcesPlugin.STOP_TEST_RESOURCES_SERVICE + " task.");
+                        }
+                        String stop = getStandalone().map(v -> String.valueOf(!v)).get();
+                        Files.createDirectories(stopFilePath.getParent());
+                        Files.write(stopFilePath, Collections.singletonList(stop), StandardOpenOption.CREATE);
+                    }
+                    var javaLauncher = getJavaLauncher().getOrNull();
+                    if (Boolean.TRUE.equals(getForeground().get()) || processParameters.isCDSDumpInvocation()) {
+                        startService(processParameters, javaLauncher);
+                    } else {
+                        serverProcess.set(ServerStartup.EXECUTOR.submit(() -> startService(processParameters, javaLauncher)));
+                    }
                 }
-                String finalExecutable = executable;
-                var logger = getLogger();
-                var result = getExecOperations().javaexec(spec -> {
-                    if (finalExecutable != null) {
-                        logger.info("Starting test resources service with Java at {}", finalExecutable);
-                        spec.setExecutable(finalExecutable);
+
+                private void startService(ServerUtils.ProcessParameters processParameters, JavaLauncher javaLauncher) {
+                    var executable = getJavaExecutable().getOrNull();
+                    if (executable == null && javaLauncher != null) {
+                        executable = javaLauncher.getExecutablePath().getAsFile().getAbsolutePath();
                     }
-                    spec.getMainClass().set(processParameters.getMainClass());
-                    spec.setDebug(getDebugServer().getOrElse(false));
-                    List<File> classpath = processParameters.getClasspath();
-                    spec.setClasspath(getObjects().fileCollection().from(classpath));
-                    spec.setJvmArgs(processParameters.getJvmArguments());
-                    processParameters.getSystemProperties().forEach(spec::systemProperty);
-                    getSystemProperties().get().forEach(spec::systemProperty);
-                    getEnvironment().get().forEach(spec::environment);
-                    processParameters.getArguments().forEach(spec::args);
-                });
-                if (result.getExitValue() != 0) {
-                    throw new GradleException("Test server failed to start");
+                    String finalExecutable = executable;
+                    var logger = getLogger();
+                    var result = getExecOperations().javaexec(spec -> {
+                        if (finalExecutable != null) {
+                            logger.info("Starting test resources service with Java at {}", finalExecutable);
+                            spec.setExecutable(finalExecutable);
+                        }
+                        spec.getMainClass().set(processParameters.getMainClass());
+                        spec.setDebug(getDebugServer().getOrElse(false));
+                        List<File> classpath = processParameters.getClasspath();
+                        spec.setClasspath(getObjects().fileCollection().from(classpath));
+                        spec.setJvmArgs(processParameters.getJvmArguments());
+                        if (!processParameters.isCDSDumpInvocation()) {
+                            if (cds != null) {
+                                spec.jvmArgs(cds.getJvmArguments());
+                            }
+                            spec.setStandardOutput(timings.monitor(System.out));
+                        }
+                        processParameters.getSystemProperties().forEach(spec::systemProperty);
+                        getSystemProperties().get().forEach(spec::systemProperty);
+                        getEnvironment().get().forEach(spec::environment);
+                        processParameters.getArguments().forEach(spec::args);
+                    });
+                    if (result.getExitValue() != 0) {
+                        throw new GradleException("Test server failed to start");
+                    }
+                }
+
+                @Override
+                public void waitFor(Duration duration) throws InterruptedException {
+                    assertServerAlive(serverProcess.get());
+                    readiness.await(duration);
+                    assertServerAlive(serverProcess.get());
                 }
+            };
+            long start = System.nanoTime();
+            ServerUtils.startOrConnectToExistingServer(
+                explicitPort,
+                portFile,
+                settingsDirectory,
+                getAccessToken().getOrNull(),
+                cds == null ? null : cds.getBuildToolsDirectory(),
+                serverClasspath,
+                getClientTimeout().getOrNull(),
+                getServerIdleTimeoutMinutes().getOrNull(),
+                serverFactory);
+            if (serverProcess.get() != null) {
+                long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                getLogger().info("Test resources server ready in {}ms", startupMillis);
+                timings.serverReady(startupMillis, cds == null ? "NONE" : cds.getMode().name());
+                // only servers spawned by this task are reported, not reused ones
+                ServerTimings.register(settingsDirectory, timings);
+                timings.writeReport(getLogger());
             }
+        }
+        preload(settingsDirectory);
+    }
 
-            @Override
-            public void waitFor(Duration duration) throws InterruptedException {
-                Thread.sleep(duration.toMillis());
+    private void preload(Path settingsDirectory) {
+        List<String> properties = getPreloadedProperties().getOrElse(List.of());
+        if (!properties.isEmpty()) {
+            getLogger().info("Preloading test resources properties {}", properties);
+            PropertyPreloader.preload(settingsDirectory, properties, getPreloadContext().getOrElse(Map.of()), getLogger());
+        }
+    }
+
+    private static boolean isDone(Future<?> serverProcess) {
+        return serverProcess != null && serverProcess.isDone();
+    }
+
+    private static void assertServerAlive(Future<?> serverProcess) {
+        if (isDone(serverProcess)) {
+            try {
+                serverProcess.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new GradleException("Test server failed to start", e.getCause());
             }
-        };
-        Path settingsDirectory = getSettingsDirectory().get().getAsFile().toPath();
-        Integer explicitPort = getExplicitPort().getOrNull();
-        Path portFile = getPortFile().map(f -> f.getAsFile().toPath()).getOrNull();
-        if (canReuseExistingServer(settingsDirectory, portFile)) {
-            return;
+            throw new GradleException("Test server stopped before it was ready");
         }
-        ServerUtils.startOrConnectToExistingServer(
-            explicitPort,
-            portFile,
-            settingsDirectory,
-            getAccessToken().getOrNull(),
-            cdsDir,
-            getClasspath().getFiles(),
-            getClientTimeout().getOrNull(),
-            getServerIdleTimeoutMinutes().getOrNull(),
-            serverFactory);
     }
 
     private boolean canReuseExistingServer(Path settingsDirectory, Path portFile) {
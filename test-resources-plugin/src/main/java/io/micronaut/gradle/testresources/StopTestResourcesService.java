@@ -44,7 +44,9 @@ public abstract class StopTestResourcesService extends DefaultTask {
     @TaskAction
     void stopServer() throws IOException {
         getLogger().lifecycle("Stopping test resources service");
-        ServerUtils.stopServer(getSettingsDirectory().get().getAsFile().toPath());
+        var settingsDirectory = getSettingsDirectory().get().getAsFile().toPath();
+        ServerTimings.complete(settingsDirectory, getLogger());
+        ServerUtils.stopServer(settingsDirectory);
         getFileOperations().delete(getSettingsDirectory());
     }
 }
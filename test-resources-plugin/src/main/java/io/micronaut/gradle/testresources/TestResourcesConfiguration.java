@@ -104,6 +104,17 @@ public interface TestResourcesConfiguration extends KnownModules {
      */
     Property<String> getSharedServerNamespace();
 
+    /**
+     * Allows projects of a multi-project build to share a single
+     * test resources server: projects which declare the same group
+     * use the same server, which is started by the first project
+     * needing it and stopped once the last project of the group
+     * scheduled in the build is done with it. This is ignored if
+     * {@link #getSharedServer()} is set to true.
+     * @return the server group
+     */
+    Property<String> getServerGroup();
+
     /**
      * Server idle timeout, in minutes. If the server
      * doesn't receive any request for this amount of
@@ -149,4 +160,59 @@ public interface TestResourcesConfiguration extends KnownModules {
      * @return the path to the Java executable
      */
     Property<String> getJavaExecutable();
+
+    /**
+     * If set to true, the test resources server is started in
+     * the background as soon as a task which needs it is scheduled,
+     * so that its startup overlaps with compilation. Tasks which
+     * need the server wait for it right before they execute.
+     * Defaults to false.
+     *
+     * @return the early start property
+     */
+    Property<Boolean> getEarlyStart();
+
+    /**
+     * If set to true, test tasks which run tests in parallel
+     * (with {@code maxParallelForks > 1}) use a distinct test
+     * resources scope for each test worker JVM: resources, for
+     * example database containers, are then not shared between
+     * parallel forks. Defaults to false.
+     *
+     * @return the isolate parallel forks property
+     */
+    Property<Boolean> getIsolateParallelForks();
+
+    /**
+     * Properties which should be resolved by the test resources
+     * server as soon as it is started, instead of when the first
+     * test needs them. This can be used to start containers
+     * concurrently, while other tasks are executing.
+     *
+     * @return the properties to preload
+     */
+    ListProperty<String> getPreloadedProperties();
+
+    /**
+     * Properties which are sent to the test resources server along with
+     * each preloaded property. This is typically used when resolving a
+     * property requires other properties, for example a datasource
+     * dialect. They must match the application configuration, including
+     * the test resources configuration (properties prefixed with
+     * {@code test-resources.}), otherwise the server provisions another
+     * resource when tests request the property.
+     *
+     * @return the properties sent with preloaded properties
+     */
+    MapProperty<String, String> getPreloadContext();
+
+    /**
+     * Declares properties which should be resolved by the test
+     * resources server as soon as it is started.
+     *
+     * @param properties the properties to preload
+     */
+    default void preload(String... properties) {
+        getPreloadedProperties().addAll(properties);
+    }
 }
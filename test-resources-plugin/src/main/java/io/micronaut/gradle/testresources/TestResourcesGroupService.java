@@ -0,0 +1,128 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A build service which keeps track of the projects sharing a test
+ * resources server, by server group. The projects which are expected
+ * to use the server of a group are recorded when the task graph is
+ * ready, then passed to the start tasks, so that this information is
+ * also available when the configuration is loaded from the configuration
+ * cache. A project is released once all its tasks using the server are
+ * done, and the server is stopped when the last project is released,
+ * if it was started by this build.
+ */
+public abstract class TestResourcesGroupService implements BuildService<BuildServiceParameters.None> {
+    private final Map<String, Group> groups = new HashMap<>();
+
+    /**
+     * Records, at configuration time, that a project will use the server
+     * of a group.
+     * @param group the server group
+     * @param projectPath the project path
+     */
+    public synchronized void expect(String group, String projectPath) {
+        groupOf(group).expected.add(projectPath);
+    }
+
+    /**
+     * Returns the projects which are expected to use the server of a group.
+     * @param group the server group
+     * @return the project paths
+     */
+    public synchronized List<String> getExpectedConsumers(String group) {
+        return new ArrayList<>(groupOf(group).expected);
+    }
+
+    /**
+     * Returns the lock which must be held while starting the
+     * server of a group, so that it is only started once.
+     * @param group the server group
+     * @return the lock
+     */
+    synchronized Object lockFor(String group) {
+        return groupOf(group);
+    }
+
+    /**
+     * Records that a project uses the server of a group.
+     * @param group the server group
+     * @param projectPath the project path
+     * @param expectedConsumers the projects expected to use the server
+     */
+    synchronized void acquire(String group, String projectPath, Collection<String> expectedConsumers) {
+        Group state = groupOf(group);
+        if (!state.initialized) {
+            state.remaining.addAll(expectedConsumers);
+            state.initialized = true;
+        }
+        state.active.add(projectPath);
+    }
+
+    /**
+     * Records that the server of a group was started by this build
+     * and that it should be stopped when it is no longer used.
+     * @param group the server group
+     */
+    synchronized void markOwned(String group) {
+        groupOf(group).owned = true;
+    }
+
+    /**
+     * Releases a project.
+     * @param group the server group
+     * @param projectPath the project path
+     * @return true if the server should be stopped
+     */
+    synchronized boolean release(String group, String projectPath) {
+        Group state = groupOf(group);
+        state.active.remove(projectPath);
+        state.remaining.remove(projectPath);
+        if (state.owned && state.active.isEmpty() && state.remaining.isEmpty()) {
+            // a project which wasn't expected may still use the server, in which case it will be restarted
+            state.owned = false;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized int getActiveConsumerCount(String group) {
+        return groupOf(group).active.size();
+    }
+
+    private Group groupOf(String group) {
+        return groups.computeIfAbsent(group, unused -> new Group());
+    }
+
+    private static final class Group {
+        private final Set<String> expected = new LinkedHashSet<>();
+        private final Set<String> remaining = new LinkedHashSet<>();
+        private final Set<String> active = new LinkedHashSet<>();
+        private boolean initialized;
+        private boolean owned;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import io.micronaut.testresources.buildtools.ServerUtils;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A build service which stops the test resources server at the end
+ * of the build, unless it was started in standalone mode. The service
+ * is registered as a task completion listener, which guarantees that
+ * Gradle instantiates it for each build, including when configuration
+ * is loaded from the configuration cache, and closes it when the build
+ * completes.
+ * <p>
+ * In continuous mode, the server is kept alive so that it is shared
+ * between the builds of the continuous build. Build services don't
+ * outlive a build, so the stop file is left in place: once the continuous
+ * build is interrupted, the server is reused and then stopped by the
+ * next build of the project, unless it reached its idle timeout first.
+ */
+public abstract class TestResourcesLifecycleService implements BuildService<TestResourcesLifecycleService.Params>, OperationCompletionListener, AutoCloseable {
+    private static final Logger LOGGER = Logging.getLogger(TestResourcesLifecycleService.class);
+
+    public interface Params extends BuildServiceParameters {
+        /**
+         * The settings directory of the test resources server.
+         * @return the settings directory
+         */
+        DirectoryProperty getSettingsDirectory();
+
+        /**
+         * The file which tells whether the server should be stopped
+         * at the end of the build. It is written by the start task.
+         * @return the stop file
+         */
+        RegularFileProperty getStopFile();
+
+        /**
+         * Whether the build is a continuous build.
+         * @return the continuous build property
+         */
+        Property<Boolean> getContinuous();
+    }
+
+    @Override
+    public void onFinish(FinishEvent event) {
+        // The service is only registered as a listener so that it is closed at the end of the build
+    }
+
+    @Override
+    public void close() {
+        Path settingsDirectory = getParameters().getSettingsDirectory().get().getAsFile().toPath();
+        ServerStartup.clear(settingsDirectory, LOGGER);
+        if (Boolean.TRUE.equals(getParameters().getContinuous().getOrElse(false))) {
+            LOGGER.info("Keeping test resources server alive for the next build of the continuous build");
+            return;
+        }
+        ServerTimings.complete(settingsDirectory, LOGGER);
+        Path stopFile = getParameters().getStopFile().get().getAsFile().toPath();
+        try {
+            if (Files.exists(stopFile)) {
+                List<String> stopFileLines = Files.readAllLines(stopFile);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Stop file contains {}", stopFileLines);
+                }
+                Files.deleteIfExists(stopFile);
+                if (!stopFileLines.isEmpty() && Boolean.parseBoolean(stopFileLines.get(0).trim())) {
+                    ServerUtils.stopServer(settingsDirectory);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Test resources server is already stopped", e);
+        }
+    }
+}
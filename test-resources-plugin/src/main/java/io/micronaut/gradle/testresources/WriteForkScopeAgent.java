@@ -0,0 +1,43 @@
+/*
+ * Copyright 2003-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.gradle.testresources;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.DisableCachingByDefault;
+
+/**
+ * A task which writes the jar of the agent setting the test resources
+ * scope of isolated test forks. Test tasks which isolate their forks
+ * use this jar as an input.
+ */
+@DisableCachingByDefault(because = "Writing the agent jar is cheaper than caching it")
+public abstract class WriteForkScopeAgent extends DefaultTask {
+    /**
+     * The agent jar.
+     *
+     * @return the agent jar file
+     */
+    @OutputFile
+    public abstract RegularFileProperty getAgentJar();
+
+    @TaskAction
+    void writeJar() {
+        ForkScopeAgent.writeJar(getAgentJar().get().getAsFile());
+    }
+}
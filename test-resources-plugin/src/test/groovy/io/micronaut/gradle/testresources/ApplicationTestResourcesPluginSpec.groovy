@@ -101,6 +101,43 @@ class ApplicationTestResourcesPluginSpec extends AbstractGradleBuildSpec {
         result.output.contains "io.micronaut.testresources.testcontainers.GenericTestContainerProvider"
     }
 
+    def "can start the test resources server early"() {
+        withSample("test-resources/data-mysql")
+        withTestResourcesConfiguration """
+            earlyStart = true
+        """
+
+        when:
+        def result = build 'test', '-i'
+
+        then:
+        result.task(":internalStartTestResourcesService").outcome == TaskOutcome.SUCCESS
+        result.task(':test').outcome == TaskOutcome.SUCCESS
+        result.output.contains "Starting test resources server in the background"
+        result.output.contains "io.micronaut.testresources.mysql.MySQLTestResourceProvider"
+        result.output.indexOf("Task :internalStartTestResourcesService") < result.output.indexOf("Task :compileTestJava")
+    }
+
+    def "stops the test resources server when the configuration is reused from the configuration cache"() {
+        withSample("test-resources/data-mysql")
+
+        when:
+        def result = build 'test', '--configuration-cache'
+
+        then:
+        result.task(':test').outcome == TaskOutcome.SUCCESS
+        result.output.contains "Configuration cache entry stored"
+        eventuallyCannotConnectTo(testResourcesPort())
+
+        when:
+        result = build 'cleanTest', 'test', '--configuration-cache'
+
+        then:
+        result.task(':test').outcome == TaskOutcome.SUCCESS
+        result.output.contains "Configuration cache entry reused"
+        eventuallyCannotConnectTo(testResourcesPort())
+    }
+
     def "runs the application with test resources support"() {
         withSample("test-resources/data-mysql")
 
@@ -114,7 +151,7 @@ class ApplicationTestResourcesPluginSpec extends AbstractGradleBuildSpec {
         result.output.contains "io.micronaut.testresources.testcontainers.GenericTestContainerProvider"
     }
 
-    def "standalone test resources service survives after build-owned service shutdown"() {
+    def "standalone test resources service started with #startTask survives after build-owned service shutdown"() {
         withSample("test-resources/data-mysql")
         buildFile.text = buildFile.text
                 .replace('implementation("io.micronaut:micronaut-jackson-databind")', 'implementation("io.micronaut.serde:micronaut-serde-jackson")')
@@ -133,7 +170,7 @@ class ApplicationTestResourcesPluginSpec extends AbstractGradleBuildSpec {
         eventuallyCannotConnectTo(firstRunPort)
 
         when:
-        def startResult = build 'startTestResourcesService'
+        def startResult = build startTask
         def standalonePort = testResourcesPort()
 
         and:
@@ -155,6 +192,9 @@ class ApplicationTestResourcesPluginSpec extends AbstractGradleBuildSpec {
         } catch (ignored) {
             // best effort cleanup when the assertion path already stopped the service
         }
+
+        where:
+        startTask << ['startTestResourcesService', ':startTestResourcesService', 'sTRS']
     }
 
     private int testResourcesPort() {
@@ -0,0 +1,125 @@
+package io.micronaut.gradle.testresources
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ClassDataSharingTest extends Specification {
+    @TempDir
+    Path testDirectory
+
+    def "selects the class data sharing mode for Java #version"() {
+        def jar = file("lib/server.jar")
+
+        expect:
+        ClassDataSharing.modeFor(version, [jar]) == expected
+
+        where:
+        version | expected
+        -1      | ClassDataSharing.Mode.BUILD_TOOLS
+        11      | ClassDataSharing.Mode.BUILD_TOOLS
+        17      | ClassDataSharing.Mode.ARCHIVE_AT_EXIT
+        21      | ClassDataSharing.Mode.DYNAMIC_ARCHIVE
+        25      | ClassDataSharing.Mode.AOT_CACHE
+    }
+
+    def "lets the build tools create the archive when the classpath contains classes directories"() {
+        def classes = file("classes/demo/Resolver.class").parentFile.parentFile
+
+        expect:
+        ClassDataSharing.modeFor(25, [file("lib/server.jar"), classes]) == ClassDataSharing.Mode.BUILD_TOOLS
+        ClassDataSharing.modeFor(25, [file("lib/server.jar"), testDirectory.resolve("missing").toFile()]) == ClassDataSharing.Mode.AOT_CACHE
+    }
+
+    def "archive key depends on the classpath and the runtime"() {
+        def jar = file("lib/server.jar")
+        def other = file("lib/other.jar")
+
+        expect:
+        ClassDataSharing.key([jar], "jdk-21") == ClassDataSharing.key([jar], "jdk-21")
+        ClassDataSharing.key([jar], "jdk-21") != ClassDataSharing.key([jar], "jdk-25")
+        ClassDataSharing.key([jar], "jdk-21") != ClassDataSharing.key([jar, other], "jdk-21")
+
+        when:
+        def before = ClassDataSharing.key([jar], "jdk-21")
+        jar.text = "an updated server jar"
+
+        then:
+        ClassDataSharing.key([jar], "jdk-21") != before
+    }
+
+    def "deletes stale archives"() {
+        def base = testDirectory.resolve("cds")
+        def stale = base.resolve("0123456789abcdef/server.jsa")
+        Files.createDirectories(stale.parent)
+        Files.writeString(stale, "stale")
+
+        when:
+        def cds = ClassDataSharing.prepare(base, [file("lib/server.jar")], null, null)
+
+        then:
+        Files.isDirectory(cds.directory)
+        cds.directory.parent == base
+        !Files.exists(stale.parent)
+    }
+
+    def "uses an existing AOT cache"() {
+        def directory = Files.createDirectories(testDirectory.resolve("cds/0123456789abcdef"))
+        def cache = directory.resolve(ClassDataSharing.AOT_CACHE_FILE)
+        def cds = new ClassDataSharing(ClassDataSharing.Mode.AOT_CACHE, directory)
+
+        expect:
+        cds.jvmArguments == ["-XX:AOTCacheOutput=${cache}".toString()]
+
+        when:
+        Files.writeString(cache, "cache")
+
+        then:
+        cds.jvmArguments == ["-XX:AOTCache=${cache}".toString()]
+    }
+
+    def "lets the JVM create a dynamic archive"() {
+        def directory = Files.createDirectories(testDirectory.resolve("cds/0123456789abcdef"))
+        def cds = new ClassDataSharing(ClassDataSharing.Mode.DYNAMIC_ARCHIVE, directory)
+
+        expect:
+        cds.jvmArguments == ["-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=${directory.resolve(ClassDataSharing.ARCHIVE_FILE)}".toString()]
+        cds.buildToolsDirectory == null
+    }
+
+    def "asks the JVM to archive classes at exit"() {
+        def directory = Files.createDirectories(testDirectory.resolve("cds/0123456789abcdef"))
+        def archive = directory.resolve(ClassDataSharing.ARCHIVE_FILE)
+        def cds = new ClassDataSharing(ClassDataSharing.Mode.ARCHIVE_AT_EXIT, directory)
+
+        expect:
+        cds.jvmArguments == ["-XX:ArchiveClassesAtExit=${archive}".toString()]
+        cds.buildToolsDirectory == null
+
+        when:
+        Files.writeString(archive, "archive")
+
+        then:
+        cds.jvmArguments == ["-XX:SharedArchiveFile=${archive}".toString()]
+    }
+
+    def "lets the build tools dump the archive"() {
+        def directory = Files.createDirectories(testDirectory.resolve("cds/0123456789abcdef"))
+        def cds = new ClassDataSharing(ClassDataSharing.Mode.BUILD_TOOLS, directory)
+
+        expect:
+        cds.jvmArguments.empty
+        cds.buildToolsDirectory == directory
+    }
+
+    private File file(String path) {
+        def file = testDirectory.resolve(path).toFile()
+        Files.createDirectories(file.parentFile.toPath())
+        if (!file.exists()) {
+            file.text = path
+        }
+        file
+    }
+}
@@ -43,4 +43,157 @@ class CustomTestResourcePluginSpec extends AbstractGradleBuildSpec {
 
     }
 
+    def "parallel test forks #description resources when isolateParallelForks is #isolate"() {
+        withSample("test-resources/custom-test-resource")
+        buildFile << """
+            micronaut.testResources.isolateParallelForks = $isolate
+            micronaut.testResources.preload("greeting.message")
+            tasks.named("test") {
+                maxParallelForks = 2
+            }
+        """
+        file("src/testResources/java/demo/GreetingTestResource.java").text = """package demo;
+
+import io.micronaut.testresources.core.TestResourcesResolver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class GreetingTestResource implements TestResourcesResolver {
+    private static final Map<String, String> GREETINGS = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getResolvableProperties(Map<String, Collection<String>> propertyEntries, Map<String, Object> testResourcesConfig) {
+        return List.of("greeting.message");
+    }
+
+    @Override
+    public Optional<String> resolve(String propertyName, Map<String, Object> properties, Map<String, Object> testResourcesConfiguration) {
+        String scope = String.valueOf(properties.get("micronaut.test.resources.scope"));
+        return Optional.of(GREETINGS.computeIfAbsent(scope, unused -> "Hello " + UUID.randomUUID()));
+    }
+}
+"""
+        ["DemoTest", "OtherDemoTest"].each { name ->
+            file("src/test/java/demo/${name}.java").text = """package demo;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@MicronautTest
+class $name {
+
+    @Value("\${greeting.message}")
+    String greeting;
+
+    @Test
+    void recordsGreeting() throws Exception {
+        Path greetings = Path.of("build/greetings");
+        Files.createDirectories(greetings);
+        Files.writeString(greetings.resolve("${name}.txt"), ProcessHandle.current().pid() + " " + greeting);
+    }
+
+}
+"""
+        }
+
+        when:
+        def result = build 'test'
+
+        then:
+        result.task(':test').outcome == TaskOutcome.SUCCESS
+        (result.task(':internalWriteTestResourcesForkScopeAgent') != null) == isolate
+        result.output.contains("the forks of task :test use their own test resources scope") == isolate
+
+        when:
+        def first = file("build/greetings/DemoTest.txt").text.split(" ", 2)
+        def second = file("build/greetings/OtherDemoTest.txt").text.split(" ", 2)
+
+        then: "each test class ran in its own fork"
+        first[0] != second[0]
+        (first[1] != second[1]) == isolate
+
+        where:
+        isolate | description
+        true    | "use distinct"
+        false   | "share"
+    }
+
+    def "reuses preloaded properties"() {
+        withSample("test-resources/custom-test-resource")
+        file("src/main/resources/application.yml") << """
+test-resources:
+  greeting:
+    name: World
+"""
+        buildFile << """
+            micronaut.testResources {
+                preload("greeting.message")
+                preloadContext.put("test-resources.greeting.name", "World")
+            }
+        """
+        file("src/testResources/java/demo/GreetingTestResource.java").text = """package demo;
+
+import io.micronaut.testresources.core.TestResourcesResolver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class GreetingTestResource implements TestResourcesResolver {
+    private static final Map<String, String> GREETINGS = new ConcurrentHashMap<>();
+
+    @Override
+    public List<String> getResolvableProperties(Map<String, Collection<String>> propertyEntries, Map<String, Object> testResourcesConfig) {
+        return List.of("greeting.message");
+    }
+
+    @Override
+    public Optional<String> resolve(String propertyName, Map<String, Object> properties, Map<String, Object> testResourcesConfiguration) {
+        // each distinct request provisions a new greeting
+        String key = properties + " " + testResourcesConfiguration;
+        return Optional.of(GREETINGS.computeIfAbsent(key, unused -> "Hello " + testResourcesConfiguration.get("greeting.name") + " #" + (GREETINGS.size() + 1)));
+    }
+}
+"""
+        file("src/test/java/demo/DemoTest.java").text = """package demo;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@MicronautTest
+class DemoTest {
+
+    @Value("\${greeting.message}")
+    String greeting;
+
+    @Test
+    void usesThePreloadedGreeting() {
+        assertEquals("Hello World #1", greeting);
+    }
+
+}
+"""
+
+        when:
+        def result = build 'test', '-i'
+
+        then:
+        result.task(':test').outcome == TaskOutcome.SUCCESS
+        result.output.contains "Preloaded test resource property greeting.message"
+    }
+
 }
@@ -1,5 +1,10 @@
 package io.micronaut.gradle.testresources
 
+import org.gradle.api.artifacts.component.ComponentIdentifier
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier
+import org.gradle.api.artifacts.result.ResolvedComponentResult
+import org.gradle.api.artifacts.result.ResolvedDependencyResult
+import org.gradle.api.artifacts.result.UnresolvedDependencyResult
 import spock.lang.Specification
 
 class MicronautTestResourcesPluginTest extends Specification {
@@ -14,4 +19,40 @@ class MicronautTestResourcesPluginTest extends Specification {
         '1.1-SNAPSHOT' | [1, 1]
         '1.1-M3'       | [1, 1]
     }
+
+    def "collects resolved modules in depth-first order"() {
+        def graph = [:]
+        def root = component(graph, [:] as ComponentIdentifier)
+        def a = module(graph, "org", "a")
+        def b = module(graph, "org", "b")
+        def c = module(graph, "org", "c")
+        def bom = module(graph, "org", "platform-bom")
+        graph[root] = [a, b, bom]
+        graph[a] = [c, root]
+        graph[b] = [c]
+
+        when:
+        def modules = MicronautTestResourcesPlugin.collectResolvedModules(root)
+
+        then:
+        modules*.toString() == ["org:a:1.0", "org:c:1.0", "org:b:1.0"]
+    }
+
+    private static ResolvedComponentResult module(Map graph, String group, String name) {
+        component(graph, [getGroup: { group }, getModule: { name }, getVersion: { "1.0" }] as ModuleComponentIdentifier)
+    }
+
+    private static ResolvedComponentResult component(Map graph, ComponentIdentifier id) {
+        ResolvedComponentResult component
+        component = [
+                getId          : { id },
+                getDependencies: {
+                    def dependencies = (graph[component] ?: []).collect { selected ->
+                        [getSelected: { selected }] as ResolvedDependencyResult
+                    } + [[:] as UnresolvedDependencyResult]
+                    dependencies as LinkedHashSet
+                }
+        ] as ResolvedComponentResult
+        component
+    }
 }
@@ -43,6 +43,32 @@ class MultiProjectTestResourcePluginSpec extends AbstractGradleBuildSpec {
         }
     }
 
+    def "can share a test resources server between projects of a server group"() {
+        withSample("test-resources/isolated-multiproject")
+        ['app1', 'app2', 'app3'].each {
+            file("${it}/build.gradle") << """
+                micronaut {
+                    testResources {
+                        serverGroup = "apps"
+                    }
+                }
+            """
+        }
+
+        when:
+        def result = build 'test'
+
+        then:
+        result.task(':app1:test').outcome == TaskOutcome.SUCCESS
+        result.task(':app2:test').outcome == TaskOutcome.SUCCESS
+        result.task(':app3:test').outcome == TaskOutcome.SUCCESS
+        result.output.count("Stopping test resources server of group apps") == 1
+        result.output.indexOf("Stopping test resources server of group apps") > result.output.lastIndexOf("Task :app3:test")
+        if (System.getenv("TESTCONTAINERS_RYUK_DISABLED") != "true") {
+            assert result.output.count("Creating container for image: testcontainers/ryuk") == 1
+        }
+    }
+
     def "detects transitive runtime classpath modules from project dependencies"() {
         withSample("test-resources/transitive-runtime-classpath")
 
@@ -0,0 +1,63 @@
+package io.micronaut.gradle.testresources
+
+import com.sun.net.httpserver.HttpServer
+import groovy.json.JsonSlurper
+import org.gradle.api.logging.Logging
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+class PropertyPreloaderTest extends Specification {
+    @TempDir
+    Path settingsDirectory
+
+    HttpServer server
+
+    def cleanup() {
+        server?.stop(0)
+    }
+
+    def "asks the server to resolve preloaded properties"() {
+        def requests = new ConcurrentHashMap<String, Map>()
+        def tokens = ConcurrentHashMap.newKeySet()
+        server = HttpServer.create(new InetSocketAddress(InetAddress.loopbackAddress, 0), 0)
+        server.createContext("/resolve") { exchange ->
+            def body = new JsonSlurper().parse(exchange.requestBody) as Map
+            requests[body.name as String] = body
+            tokens << exchange.requestHeaders.getFirst("Access-Token")
+            def response = '"value"'.getBytes(StandardCharsets.UTF_8)
+            exchange.sendResponseHeaders(200, response.length)
+            exchange.responseBody.withCloseable { it.write(response) }
+        }
+        server.start()
+        settingsDirectory.resolve("test-resources.properties").toFile().text = """server.uri=http\\://localhost\\:${server.address.port}
+server.access.token=secret
+"""
+
+        when:
+        PropertyPreloader.preload(
+                settingsDirectory,
+                ["datasources.default.url", "kafka.bootstrap.servers"],
+                ["datasources.default.dialect": "MYSQL", "test-resources.containers.mysql.image-name": "mysql:8"],
+                Logging.getLogger(PropertyPreloaderTest)
+        ).get(10, TimeUnit.SECONDS)
+
+        then:
+        requests.keySet() == ["datasources.default.url", "kafka.bootstrap.servers"] as Set
+        requests["datasources.default.url"].properties == ["datasources.default.dialect": "MYSQL"]
+        requests["datasources.default.url"].testResourcesConfig == ["containers.mysql.image-name": "mysql:8"]
+        tokens == ["secret"] as Set
+    }
+
+    def "doesn't fail if the server settings are missing"() {
+        when:
+        def future = PropertyPreloader.preload(settingsDirectory, ["datasources.default.url"], [:], Logging.getLogger(PropertyPreloaderTest))
+
+        then:
+        future.isDone()
+    }
+}
@@ -0,0 +1,94 @@
+package io.micronaut.gradle.testresources
+
+import com.sun.net.httpserver.HttpServer
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.util.jar.JarFile
+
+class ServerConnectionParametersProviderTest extends Specification {
+    @TempDir
+    Path testDirectory
+
+    Project project
+
+    def setup() {
+        project = ProjectBuilder.builder().withProjectDir(testDirectory.toFile()).build()
+        def settings = testDirectory.resolve("settings/test-resources.properties").toFile()
+        settings.parentFile.mkdirs()
+        settings.text = "server.uri=http://localhost:1234\n"
+    }
+
+    def "passes the server settings to the client"() {
+        def settingsDir = project.layout.projectDirectory.dir("settings")
+        def provider = new ServerConnectionParametersProvider(project.provider { settingsDir })
+
+        expect:
+        provider.asArguments() as List == ["-Dmicronaut.test.resources.server.uri=http://localhost:1234"]
+    }
+
+    def "attaches the fork scope agent when forks are isolated"() {
+        def settingsDir = project.layout.projectDirectory.dir("settings")
+        def agentJar = project.layout.projectDirectory.file("agent/fork-scope-agent.jar")
+        def provider = new ServerConnectionParametersProvider(project.provider { settingsDir }, project.provider { isolate ? agentJar : null })
+
+        expect:
+        provider.asArguments() as List == expected
+
+        where:
+        isolate | expected
+        false   | ["-Dmicronaut.test.resources.server.uri=http://localhost:1234"]
+        true    | ["-Dmicronaut.test.resources.server.uri=http://localhost:1234", "-javaagent:${testDirectory.resolve('agent/fork-scope-agent.jar').toFile().absolutePath}=fork-".toString()]
+    }
+
+    def "agent jar declares the agent class"() {
+        def jar = testDirectory.resolve("agent/fork-scope-agent.jar").toFile()
+
+        when:
+        ForkScopeAgent.writeJar(jar)
+
+        then:
+        new JarFile(jar).withCloseable {
+            it.manifest.mainAttributes.getValue("Premain-Class") == ForkScopeAgent.name &&
+                    it.getEntry("io/micronaut/gradle/testresources/ForkScopeAgent.class") != null
+        }
+    }
+
+    def "agent closes the scope of the fork"() {
+        def requests = []
+        def server = HttpServer.create(new InetSocketAddress(InetAddress.loopbackAddress, 0), 0)
+        server.createContext("/") { exchange ->
+            requests << [exchange.requestURI.path, exchange.requestHeaders.getFirst("Access-Token")]
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        }
+        server.start()
+        System.setProperty(ForkScopeAgent.SERVER_URI_PROPERTY, "http://localhost:${server.address.port}")
+        System.setProperty(ForkScopeAgent.ACCESS_TOKEN_PROPERTY, "secret")
+
+        when:
+        def closed = ForkScopeAgent.closeScope("fork-123")
+
+        then:
+        closed
+        requests == [["/close/fork-123", "secret"]]
+
+        cleanup:
+        server.stop(0)
+        System.clearProperty(ForkScopeAgent.SERVER_URI_PROPERTY)
+        System.clearProperty(ForkScopeAgent.ACCESS_TOKEN_PROPERTY)
+    }
+
+    def "agent ignores an unreachable server when closing the scope"() {
+        System.setProperty(ForkScopeAgent.SERVER_URI_PROPERTY, "http://localhost:1")
+
+        expect:
+        !ForkScopeAgent.closeScope("fork-123")
+
+        cleanup:
+        System.clearProperty(ForkScopeAgent.SERVER_URI_PROPERTY)
+    }
+}
@@ -0,0 +1,70 @@
+package io.micronaut.gradle.testresources
+
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.lang.Timeout
+
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+class ServerReadinessWatcherTest extends Specification {
+    @TempDir
+    Path testDirectory
+
+    @Timeout(value = 20, unit = TimeUnit.SECONDS)
+    def "stops waiting as soon as the server is listening"() {
+        def portFile = testDirectory.resolve("test-resources/port.txt")
+        def server = new ServerSocket(0, 50, InetAddress.loopbackAddress)
+        def watcher = new ServerReadinessWatcher(portFile, null, { false })
+
+        when:
+        CompletableFuture.runAsync {
+            Thread.sleep(200)
+            portFile.toFile().text = "${server.localPort}"
+        }
+        long start = System.nanoTime()
+        watcher.await(Duration.ofSeconds(30))
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+
+        then:
+        elapsed < 10_000
+
+        cleanup:
+        watcher?.close()
+        server?.close()
+    }
+
+    def "waits at most the requested duration"() {
+        def portFile = testDirectory.resolve("missing/port.txt")
+        def watcher = new ServerReadinessWatcher(portFile, null, { false })
+
+        when:
+        long start = System.nanoTime()
+        watcher.await(Duration.ofMillis(100))
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+
+        then:
+        elapsed >= 50
+        elapsed < 10_000
+
+        cleanup:
+        watcher?.close()
+    }
+
+    def "stops waiting when the server process exited"() {
+        def portFile = testDirectory.resolve("exited/port.txt")
+        def watcher = new ServerReadinessWatcher(portFile, null, { true })
+
+        when:
+        long start = System.nanoTime()
+        watcher.await(Duration.ofSeconds(30))
+
+        then:
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 10_000
+
+        cleanup:
+        watcher?.close()
+    }
+}
@@ -0,0 +1,57 @@
+package io.micronaut.gradle.testresources
+
+import org.gradle.api.GradleException
+import org.gradle.api.logging.Logger
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+import java.util.concurrent.CompletableFuture
+
+class ServerStartupTest extends Specification {
+    @TempDir
+    Path settingsDirectory
+
+    def "reports a background startup failure which was never awaited"() {
+        given:
+        def logger = Mock(Logger)
+        def failure = new IllegalStateException("boom")
+        ServerStartup.register(settingsDirectory, CompletableFuture.failedFuture(failure))
+
+        when:
+        ServerStartup.clear(settingsDirectory, logger)
+
+        then:
+        1 * logger.error("Test resources server failed to start in the background", failure)
+    }
+
+    def "doesn't report a background startup failure twice"() {
+        given:
+        def logger = Mock(Logger)
+        ServerStartup.register(settingsDirectory, CompletableFuture.failedFuture(new IllegalStateException("boom")))
+
+        when:
+        ServerStartup.await(settingsDirectory)
+
+        then:
+        thrown(GradleException)
+
+        when:
+        ServerStartup.clear(settingsDirectory, logger)
+
+        then:
+        0 * logger.error(*_)
+    }
+
+    def "doesn't report a successful background startup"() {
+        given:
+        def logger = Mock(Logger)
+        ServerStartup.register(settingsDirectory, CompletableFuture.completedFuture(null))
+
+        when:
+        ServerStartup.clear(settingsDirectory, logger)
+
+        then:
+        0 * logger.error(*_)
+    }
+}
@@ -0,0 +1,64 @@
+package io.micronaut.gradle.testresources
+
+import groovy.json.JsonSlurper
+import org.gradle.api.logging.Logging
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Path
+
+class ServerTimingsTest extends Specification {
+    @TempDir
+    Path testDirectory
+
+    def "collects image pull and container start timings from the server output"() {
+        def reportFile = testDirectory.resolve("reports/timings.json")
+        def settingsDirectory = testDirectory.resolve("settings")
+        def timings = new ServerTimings(reportFile)
+        ServerTimings.register(settingsDirectory, timings)
+        def output = new ByteArrayOutputStream()
+        def monitor = timings.monitor(output)
+
+        when:
+        timings.serverReady(450, "AOT_CACHE")
+        monitor.write("""12:00:00.001 [main] INFO  tc.mysql:8 - Pulling docker image: mysql:8. Please be patient; this may take some time but only needs to be done once.
+12:00:03.001 [main] INFO  tc.mysql:8 - Pull complete. 11 layers, pulled in 3s (downloaded 150 MB at 50 MB/s)
+12:00:03.002 [main] INFO  tc.mysql:8 - Creating container for image: mysql:8
+12:00:15.002 [main] INFO  tc.mysql:8 - Container mysql:8 started in PT12.345S
+12:00:15.003 [main] INFO  tc.redis:7 - Creating container""".getBytes(StandardCharsets.UTF_8))
+        monitor.write(" for image: redis:7\n".getBytes(StandardCharsets.UTF_8))
+        ServerTimings.complete(settingsDirectory, Logging.getLogger(ServerTimingsTest))
+        def report = new JsonSlurper().parse(reportFile.toFile())
+
+        then:
+        output.toString(StandardCharsets.UTF_8).contains("Container mysql:8 started in PT12.345S")
+        report.serverReadyMillis == 450
+        report.classDataSharing == "AOT_CACHE"
+        report.imagePulls*.image == ["mysql:8"]
+        report.containers == [[image: "mysql:8", millis: 12345], [image: "redis:7", millis: -1]]
+        report.containerStartMillis == 12345
+        timings.summary().contains("container mysql:8 started in 12345ms")
+        timings.summary().contains("container redis:7 (not started)")
+    }
+
+    def "completing an unknown server is a no-op"() {
+        when:
+        ServerTimings.complete(testDirectory.resolve("unknown"), Logging.getLogger(ServerTimingsTest))
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "timings which were not registered are not reported"() {
+        def reportFile = testDirectory.resolve("reports/timings.json")
+        def settingsDirectory = testDirectory.resolve("settings")
+        new ServerTimings(reportFile)
+
+        when:
+        ServerTimings.complete(settingsDirectory, Logging.getLogger(ServerTimingsTest))
+
+        then:
+        !reportFile.toFile().exists()
+    }
+}
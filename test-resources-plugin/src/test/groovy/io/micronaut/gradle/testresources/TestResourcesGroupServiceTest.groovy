@@ -0,0 +1,70 @@
+package io.micronaut.gradle.testresources
+
+import org.gradle.api.services.BuildServiceParameters
+import spock.lang.Specification
+
+class TestResourcesGroupServiceTest extends Specification {
+    def service = new TestResourcesGroupService() {
+        @Override
+        BuildServiceParameters.None getParameters() {
+            null
+        }
+    }
+
+    def "stops the server once all expected projects released it"() {
+        def expected = [':app1', ':app2', ':app3']
+
+        when:
+        service.acquire("apps", ":app1", expected)
+        service.markOwned("apps")
+
+        then:
+        !service.release("apps", ":app1")
+
+        when:
+        service.acquire("apps", ":app2", expected)
+
+        then:
+        !service.release("apps", ":app2")
+
+        when:
+        service.acquire("apps", ":app3", expected)
+
+        then:
+        service.release("apps", ":app3")
+    }
+
+    def "doesn't stop a server which wasn't started by the build"() {
+        when:
+        service.acquire("apps", ":app1", [':app1'])
+
+        then:
+        !service.release("apps", ":app1")
+    }
+
+    def "doesn't stop the server while a project uses it"() {
+        when:
+        service.acquire("apps", ":app1", [':app1'])
+        service.markOwned("apps")
+        service.acquire("apps", ":other", [':app1'])
+
+        then:
+        !service.release("apps", ":app1")
+        service.getActiveConsumerCount("apps") == 1
+        service.release("apps", ":other")
+    }
+
+    def "groups are independent"() {
+        when:
+        service.expect("a", ":app1")
+        service.expect("b", ":app2")
+        service.acquire("a", ":app1", service.getExpectedConsumers("a"))
+        service.markOwned("a")
+
+        then:
+        service.getExpectedConsumers("a") == [':app1']
+        service.getExpectedConsumers("b") == [':app2']
+        service.getActiveConsumerCount("b") == 0
+        service.release("a", ":app1")
+    }
+}
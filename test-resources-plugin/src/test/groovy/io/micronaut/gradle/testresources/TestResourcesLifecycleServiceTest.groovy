@@ -0,0 +1,58 @@
+package io.micronaut.gradle.testresources
+
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Path
+
+class TestResourcesLifecycleServiceTest extends Specification {
+    @TempDir
+    Path testDirectory
+
+    Project project
+    File stopFile
+
+    def setup() {
+        project = ProjectBuilder.builder().withProjectDir(testDirectory.toFile()).build()
+        stopFile = testDirectory.resolve("stop.txt").toFile()
+        stopFile.text = "true\n"
+    }
+
+    def "stops the server at the end of the build"() {
+        when:
+        newService(false).close()
+
+        then:
+        !stopFile.exists()
+    }
+
+    def "keeps the server alive between the builds of a continuous build"() {
+        when: "two builds of a continuous build complete"
+        newService(true).close()
+        newService(true).close()
+
+        then:
+        stopFile.exists()
+
+        when: "a build completes after the continuous build was interrupted"
+        newService(false).close()
+
+        then:
+        !stopFile.exists()
+    }
+
+    private TestResourcesLifecycleService newService(boolean continuous) {
+        def params = project.objects.newInstance(TestResourcesLifecycleService.Params)
+        params.settingsDirectory.set(testDirectory.resolve("settings").toFile())
+        params.stopFile.set(stopFile)
+        params.continuous.set(continuous)
+        new TestResourcesLifecycleService() {
+            @Override
+            TestResourcesLifecycleService.Params getParameters() {
+                params
+            }
+        }
+    }
+}